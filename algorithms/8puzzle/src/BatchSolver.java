@@ -0,0 +1,190 @@
+/**
+ * BatchSolver.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: stdlib.jar algs4.jar Board.java Solver.java SearchArena.java
+ *               SolutionCache.java Heuristic.java PatternDatabase.java
+ *
+ * Solves many boards in one JVM, so start-up and JIT warm-up are paid once.
+ * Boards are solved by Solver on the workers of a ForkJoinPool; every worker
+ * thread reuses its own SearchArena from one board to the next. At most a few
+ * boards per worker are in flight: results are reported in input order as
+ * soon as the oldest board is solved, so a batch of any size streams through
+ * in bounded memory.
+ * A SolutionCache answers boards already solved, or met along an earlier
+ * solution, without search. Two copies of a board in flight at the same time
+ * may both miss the cache.
+ *
+ */
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+public class BatchSolver {
+	private final Heuristic heuristic;		// h of the priority moves + h
+	private final SolutionCache cache;		// solved boards
+	private final ForkJoinPool pool;		// workers
+	private final ThreadLocal<SearchArena> arenas = new ThreadLocal<SearchArena>() {
+		@Override
+		protected SearchArena initialValue() {
+			return new SearchArena();
+		}
+	};
+
+	/**
+	 * Receiver of the solutions of a batch, in input order
+	 */
+	public interface Receiver {
+		/**
+		 * @param index position of board in the batch, from 0
+		 * @param board
+		 * @param solution
+		 */
+		void receive(int index, Board board, SolutionCache.Solution solution);
+	}
+
+	/**
+	 * @param heuristic
+	 * @param cacheSize most boards cached, 0 disables the cache
+	 * @param pool workers solving the boards
+	 */
+	public BatchSolver(Heuristic heuristic, int cacheSize, ForkJoinPool pool) {
+		this.heuristic = heuristic;
+		this.cache = new SolutionCache(cacheSize);
+		this.pool = pool;
+	}
+
+	/**
+	 * cache of the solved boards, with its hit and miss counters
+	 * @return
+	 */
+	public SolutionCache cache() {
+		return cache;
+	}
+
+	/**
+	 * Solves board in the calling thread, from the cache if possible
+	 * @param board
+	 * @return
+	 */
+	public SolutionCache.Solution solve(Board board) {
+		SolutionCache.Solution cached = cache.get(board);
+		if (cached != null)
+			return cached;
+		Solver solver = new Solver(board, heuristic, arenas.get());
+		return cache.put(board, solver.solution());
+	}
+
+	/**
+	 * Solves all the boards on the pool
+	 * @param boards
+	 * @param receiver gets every solution, in the order of boards, in the
+	 *                 calling thread
+	 * @return number of boards solved
+	 */
+	public int solveAll(Iterator<Board> boards, Receiver receiver) {
+		int window = 4 * pool.getParallelism();
+		ArrayDeque<Board> pending = new ArrayDeque<Board>();
+		ArrayDeque<ForkJoinTask<SolutionCache.Solution>> tasks =
+				new ArrayDeque<ForkJoinTask<SolutionCache.Solution>>();
+		int index = 0;
+		while (boards.hasNext() || !tasks.isEmpty()) {
+			if (boards.hasNext() && tasks.size() < window) {
+				final Board board = boards.next();
+				pending.add(board);
+				tasks.add(pool.submit(new Callable<SolutionCache.Solution>() {
+					@Override
+					public SolutionCache.Solution call() {
+						return solve(board);
+					}
+				}));
+				continue;
+			}
+			receiver.receive(index++, pending.remove(), tasks.remove().join());
+		}
+		return index;
+	}
+
+	/**
+	 * Reads boards from in, each given as N followed by its N^2 blocks,
+	 * until the input is empty
+	 * @param in
+	 * @return
+	 */
+	public static Iterator<Board> read(final In in) {
+		return new Iterator<Board>() {
+			@Override
+			public boolean hasNext() {
+				return !in.isEmpty();
+			}
+
+			@Override
+			public Board next() {
+				if (in.isEmpty())
+					throw new NoSuchElementException();
+				int N = in.readInt();
+				int[][] blocks = new int[N][N];
+				for (int i = 0; i < N; i++)
+					for (int j = 0; j < N; j++)
+						blocks[i][j] = in.readInt();
+				return new Board(blocks);
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Solves the boards of a file, or of standard input
+	 * @param args optional input file, then options: -pdb file,
+	 *             -threads count, -cache size (boards), -v to print every
+	 *             solution
+	 */
+	public static void main(String[] args) {
+		String file = null;
+		Heuristic heuristic = Heuristic.MANHATTAN;
+		int threads = Runtime.getRuntime().availableProcessors();
+		int cacheSize = 1 << 16;
+		boolean verbose = false;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-pdb"))
+				heuristic = PatternDatabase.load(args[++i]);
+			else if (args[i].equals("-threads"))
+				threads = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-cache"))
+				cacheSize = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-v"))
+				verbose = true;
+			else
+				file = args[i];
+		}
+		In in = file == null ? new In() : new In(file);
+
+		final boolean printBoards = verbose;
+		BatchSolver batch = new BatchSolver(heuristic, cacheSize, new ForkJoinPool(threads));
+		long start = System.nanoTime();
+		int solved = batch.solveAll(read(in), new Receiver() {
+			@Override
+			public void receive(int index, Board board, SolutionCache.Solution solution) {
+				if (!solution.isSolvable())
+					StdOut.println("No solution possible");
+				else {
+					StdOut.println("Minimum number of moves = " + solution.moves());
+					if (printBoards)
+						for (Board step : solution.solution())
+							StdOut.println(step);
+				}
+			}
+		});
+		SolutionCache cache = batch.cache();
+		StdOut.printf("%d boards in %.1f ms, cache: %d hits, %d misses, %d boards%n",
+				solved, (System.nanoTime() - start) / 1e6, cache.hits(), cache.misses(),
+				cache.size());
+	}
+}
@@ -0,0 +1,232 @@
+/**
+ * BidirectionalSolver.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Dependencies: stdlib.jar algs4.jar Board.java SearchArena.java
+ *
+ * Bidirectional A* solver with the same API as Solver, using the MM
+ * algorithm ("meet in the middle") of Holte, Felner, Sharon and Sturtevant.
+ * A forward search from the initial board and a backward search from the
+ * goal run at once, each in its own SearchArena. A node of either direction
+ * has priority max(g + h, 2g), where h is the Manhattan distance to the
+ * other end, so neither search goes past the middle of an optimal path
+ * before the other one catches up. Every direction expands the frontier
+ * with the smallest priority C.
+ * Every generated board is looked up in the other direction's arena by its
+ * hashed code; a board reached by both gives a path of g forward + g
+ * backward moves, and U is the shortest of them. The search stops as soon as
+ * U <= C, which proves U optimal, and the path is rebuilt by following the
+ * parents of the meeting board in both arenas.
+ *
+ */
+public class BidirectionalSolver {
+	private final SearchArena forward = new SearchArena();	// from the initial board
+	private final SearchArena backward = new SearchArena();	// from the goal
+	private final int[] initialCells;	// initialCells[tile] = index of tile in the initial board
+	private long forwardNodes;			// boards expanded forward
+	private long backwardNodes;			// boards expanded backward
+
+	private int best = Integer.MAX_VALUE;	// U, length of the shortest path met
+	private int meetForward = -1;			// meeting node of that path in forward
+	private int meetBackward = -1;			// meeting node of that path in backward
+
+	private boolean isSolvable = false;
+	private Stack<Board> historyBoards;			//solution history
+
+	/**
+	 * find a solution to the initial board (using the MM bidirectional
+	 * search with the Manhattan distance in both directions)
+	 * @param initial
+	 */
+	public BidirectionalSolver(Board initial)
+	{
+		int N = initial.dimension();
+		initialCells = new int[N * N];
+		for (int i = 0; i < N * N; i++)
+			initialCells[initial.tile(i)] = i;
+		if (!initial.isSolvable())
+			return;		// decided by parity, no search needed
+		isSolvable = true;
+
+		int[][] blocks = new int[N][N];
+		for (int i = 0; i < N * N - 1; i++)
+			blocks[i / N][i % N] = i + 1;
+		Board goal = new Board(blocks);
+
+		forward.reset(N);
+		backward.reset(N);
+		int root = forward.add(initial, 0, -1);
+		forward.push(root, initial.manhattan());
+		backward.push(backward.add(goal, 0, -1), initial.manhattan());
+		if (initial.isGoal()) {
+			best = 0;
+			meetForward = root;
+			meetBackward = 0;
+		}
+
+		Board[] boardNeighbors = new Board[4];	// reused for every expansion
+		while (true) {
+			int forwardMin = forward.minPriority(), backwardMin = backward.minPriority();
+			if (forwardMin < 0 || backwardMin < 0)
+				break;		// cannot happen for a solvable board
+			int C = Math.min(forwardMin, backwardMin);
+			if (best <= C)
+				break;
+			if (forwardMin < backwardMin
+					|| forwardMin == backwardMin && forward.queued() <= backward.queued())
+				forwardNodes += expand(forward, backward, true, boardNeighbors);
+			else
+				backwardNodes += expand(backward, forward, false, boardNeighbors);
+		}
+		historyBoards = path();
+	}
+
+	/**
+	 * Expands the next node of search, and records every neighbor already
+	 * reached by other that makes a shorter path
+	 * @param search
+	 * @param other the search in the other direction
+	 * @param isForward is search the forward search?
+	 * @param buffer neighbor buffer
+	 * @return 1 if a node was expanded, 0 for a stale one
+	 */
+	private int expand(SearchArena search, SearchArena other, boolean isForward, Board[] buffer) {
+		int node = search.pop();
+		if (search.isStale(node))
+			return 0;	// superseded by a shorter path to the same board
+		int moves = search.cost(node) + 1;
+		int count = search.board(node).neighbors(buffer);
+		for (int i = 0; i < count; i++) {
+			int child = search.add(buffer[i], moves, node);
+			if (child < 0)
+				continue;
+			int h = isForward ? buffer[i].manhattan() : toInitial(buffer[i]);
+			search.push(child, Math.max(moves + h, 2 * moves));
+
+			int met = other.find(buffer[i]);
+			if (met >= 0 && moves + other.cost(met) < best) {
+				best = moves + other.cost(met);
+				meetForward = isForward ? child : met;
+				meetBackward = isForward ? met : child;
+			}
+		}
+		return 1;
+	}
+
+	/**
+	 * @param board
+	 * @return Manhattan distance between board and the initial board
+	 */
+	private int toInitial(Board board) {
+		int N = board.dimension(), sum = 0;
+		for (int i = 0; i < N * N; i++) {
+			int tile = board.tile(i);
+			if (tile == 0)
+				continue;
+			int target = initialCells[tile];
+			sum += Math.abs(i / N - target / N) + Math.abs(i % N - target % N);
+		}
+		return sum;
+	}
+
+	/**
+	 * Boards of the shortest path met, from the initial board to the goal
+	 * @return
+	 */
+	private Stack<Board> path() {
+		Stack<Board> half = new Stack<Board>();		// meeting board to goal, reversed
+		for (int p = backward.parent(meetBackward); p >= 0; p = backward.parent(p))
+			half.push(backward.board(p));
+		Stack<Board> boards = new Stack<Board>();
+		for (Board board : half)
+			boards.push(board);
+		for (int p = meetForward; p >= 0; p = forward.parent(p))
+			boards.push(forward.board(p));
+		return boards;
+	}
+
+	/**
+	 * is the initial board solvable?
+	 * @return
+	 */
+	public boolean isSolvable()
+	{
+		return isSolvable;
+	}
+
+	/**
+	 * min number of moves to solve initial board; -1 if no solution
+	 * @return
+	 */
+	public int moves()
+	{
+		if (isSolvable)
+			return historyBoards.size() - 1;
+		else
+			return -1;
+	}
+
+	/**
+	 * number of boards expanded by the search from the initial board
+	 * @return
+	 */
+	public long forwardNodes()
+	{
+		return forwardNodes;
+	}
+
+	/**
+	 * number of boards expanded by the search from the goal
+	 * @return
+	 */
+	public long backwardNodes()
+	{
+		return backwardNodes;
+	}
+
+	/**
+	 * sequence of boards in a shortest solution; null if no solution
+	 * @return
+	 */
+	public Iterable<Board> solution()
+	{
+		if (!isSolvable)
+			return null;
+		return historyBoards;
+	}
+
+	/**
+	 * Solves the board of a file
+	 * @param args puzzle file, then -nodes to compare the node counts with
+	 *             the unidirectional Solver instead of printing the solution
+	 */
+	public static void main(String[] args) {
+		// create initial board from file
+		In in = new In(args[0]);
+		int N = in.readInt();
+		int[][] blocks = new int[N][N];
+		for (int i = 0; i < N; i++)
+			for (int j = 0; j < N; j++)
+				blocks[i][j] = in.readInt();
+		Board initial = new Board(blocks);
+
+		// solve the puzzle
+		BidirectionalSolver solver = new BidirectionalSolver(initial);
+
+		// print solution to standard output
+		if (!solver.isSolvable())
+			StdOut.println("No solution possible");
+		else if (args.length > 1 && args[1].equals("-nodes")) {
+			Solver single = new Solver(initial);
+			StdOut.println("Minimum number of moves = " + solver.moves());
+			StdOut.printf("bidirectional: %d forward + %d backward = %d nodes%n",
+					solver.forwardNodes(), solver.backwardNodes(),
+					solver.forwardNodes() + solver.backwardNodes());
+			StdOut.printf("unidirectional: %d nodes, %d moves%n", single.nodes(), single.moves());
+		} else {
+			StdOut.println("Minimum number of moves = " + solver.moves());
+			for (Board board : solver.solution())
+				StdOut.println(board);
+		}
+	}
+}
@@ -2,7 +2,7 @@ import java.util.Arrays;
 /**
  * Board.java
  * @author George Titarenko
- * 08/08/2014
+ * 08/08/2014, last updated 10/19/2026
  * Dependencies: Dependencies: stdlib.jar algs4.jar
  * 
  * Structure to represent a NxN "8 puzzle" board. Will use A* search algorithm.
@@ -16,22 +16,49 @@ import java.util.Arrays;
  * (sum of the vertical and horizontal distance) from the blocks to their goal positions, 
  * plus the number of moves made so far to get to the search node.   
  *
+ * Boards up to 4x4 are packed into a single long, 4 bits per tile in row-major
+ * order, so equals() is one comparison and a board is a handful of bytes;
+ * larger boards keep one byte per tile. The blank position is stored, not
+ * searched for.
+ * The Manhattan distance is computed once for a board built from blocks; a
+ * neighbor derives its own from its parent's in O(1), as only the moved block
+ * changes distance. neighbors(Board[]) writes the children into a buffer the
+ * caller reuses.
+ *
  */
 public final class Board {
-	private final int N; // board size
-	private final short[][] board; // board
-	private int manhattan = -1;		//for manhattan() cashing
+	private static final int PACKED_MAX_N = 4;	// largest board packed in a long
+	private static final int MAX_N = 16;		// largest board with tiles fitting a byte
+
+	public static final int RIGHT = 0;			// directions the blank moves, in the
+	public static final int LEFT = 1;			// order of neighbors()
+	public static final int DOWN = 2;
+	public static final int UP = 3;
+
+	private final int N; 			// board size
+	private final long packed;		// tile i in bits 4i..4i+3 when N <= PACKED_MAX_N
+	private final byte[] tiles;		// tile i in tiles[i] when N > PACKED_MAX_N, else null
+	private final int blank;		// row-major index of the blank
+	private final int manhattan;	// sum of Manhattan distances of the blocks
 
-	private Board(short[][] blocks) // added private constructor, decr. mem,
-									// used by 20%
+	private Board(int N, long packed, byte[] tiles, int blank, int manhattan) // board sharing tiles
 	{
-		this.N = blocks.length;
-		board = new short[this.N][this.N];
-		for (int i = 0; i < this.N; i++) {
-			for (int j = 0; j < this.N; j++)
-				board[i][j] = blocks[i][j];
-		}
+		this.N = N;
+		this.packed = packed;
+		this.tiles = tiles;
+		this.blank = blank;
+		this.manhattan = manhattan;
 	}
+
+	private Board(int N, long packed, byte[] tiles, int blank) // decoded board
+	{
+		this.N = N;
+		this.packed = packed;
+		this.tiles = tiles;
+		this.blank = blank;
+		this.manhattan = computeManhattan();
+	}
+
 	/**
 	 * construct a board from an N-by-N array of blocks
 	 * (where blocks[i][j] = block in row i, column j)
@@ -40,89 +67,155 @@ public final class Board {
 	public Board(int[][] blocks) 	
 	{ 								
 		this.N = blocks.length;
-		board = new short[this.N][this.N];
-		for (int i = 0; i < this.N; i++) {
-			for (int j = 0; j < this.N; j++)
-				board[i][j] = (short) blocks[i][j];
+		if (N < 2 || N > MAX_N)
+			throw new IllegalArgumentException("Board size must be between 2 and " + MAX_N);
+		long packed = 0;
+		byte[] tiles = N > PACKED_MAX_N ? new byte[N * N] : null;
+		int blank = -1;
+		for (int i = 0; i < N; i++) {
+			if (blocks[i].length != N)
+				throw new IllegalArgumentException("Board must be square");
+			for (int j = 0; j < N; j++) {
+				int tile = blocks[i][j];
+				if (tile < 0 || tile >= N * N)
+					throw new IllegalArgumentException("Invalid block " + tile);
+				if (tile == 0)
+					blank = i * N + j;
+				if (tiles == null)
+					packed |= (long) tile << (4 * (i * N + j));
+				else
+					tiles[i * N + j] = (byte) tile;
+			}
 		}
+		if (blank < 0)
+			throw new IllegalArgumentException("Board has no blank");
+		this.packed = packed;
+		this.tiles = tiles;
+		this.blank = blank;
+		this.manhattan = computeManhattan();
 	}
 
 	/**
-	 * @return x coord of the empty slot
+	 * @param index row-major position
+	 * @return the block at index, 0 for the blank
 	 */
-	private int getEmptyX() {
-		for (int i = 0; i < N; i++)
-			for (int j = 0; j < N; j++)
-				if (0 == board[i][j])
-					return i;
-		return -99;
+	int tile(int index) {
+		if (tiles == null)
+			return (int) (packed >>> (4 * index)) & 0xF;
+		return tiles[index] & 0xFF;
 	}
 
 	/**
-	 * @return y coord of the empty slot
+	 * @return row-major position of the blank
 	 */
-	private int getEmptyY() {
-		for (int i = 0; i < N; i++)
-			for (int j = 0; j < N; j++)
-				if (0 == board[i][j]) {
-					return j;
-				}
-		return -99;
+	int blankIndex() {
+		return blank;
 	}
 
 	/**
-	 * Moves a node into empty slot
-	 * @param x0 empty slot
-	 * @param y0 empty slot
-	 * @param x1 target slot
-	 * @param y1 target slot
-	 * @throws Exception
+	 * number of longs encode() writes for an N-by-N board: 1 up to 4x4, one
+	 * byte per tile above
+	 * @param N
+	 * @return
 	 */
-	private void moveEmpty(int x0, int y0, int x1, int y1) throws Exception {
-		if (Math.abs(x0 - x1) > 1 || Math.abs(y0 - y1) > 1
-				|| (x1 != x0 && y1 != y0))
-			throw new Exception("Impossible move requested!");
-		board[x0][y0] = board[x1][y1];
-		board[x1][y1] = 0;
+	public static int codeLength(int N) {
+		return N <= PACKED_MAX_N ? 1 : (N * N + 7) / 8;
 	}
 
 	/**
-	 * Swaps two nodes with given coords (should be neighbors)
-	 * @param x0 
-	 * @param y0
-	 * @param x1
-	 * @param y1
-	 * @throws Exception
+	 * Writes the compact encoding of this board, two boards of the same size
+	 * are equal exactly when their encodings are
+	 * @param code
+	 * @param offset first long written, codeLength(N) are
 	 */
-	private void swapElement(int x0, int y0, int x1, int y1) throws Exception {
-		if (Math.abs(x0 - x1) > 1 || Math.abs(y0 - y1) > 1
-				|| (x1 != x0 && y1 != y0))
-			throw new Exception("Impossible move requested!");
-		if (board[x0][y0] == 0 || board[x1][y1] == 0) {
-			x0++;
-			x1++;
+	public void encode(long[] code, int offset) {
+		if (tiles == null) {
+			code[offset] = packed;
+			return;
+		}
+		int words = codeLength(N);
+		for (int w = 0; w < words; w++) {
+			long word = 0;
+			for (int k = 0, i = 8 * w; k < 8 && i < tiles.length; k++, i++)
+				word |= (long) (tiles[i] & 0xFF) << (8 * k);
+			code[offset + w] = word;
 		}
-		short swap = board[x0][y0];
-		board[x0][y0] = board[x1][y1];
-		board[x1][y1] = swap;
 	}
 
 	/**
-	 * Calculates a target slot for a given node. (x, y)
-	 * @param position
+	 * The board encode() wrote
+	 * @param N board dimension
+	 * @param code
+	 * @param offset first long of the encoding
 	 * @return
 	 */
-	private int[] getTargetPosition(int position) {
-		int[] targetPosition = new int[2];
-		int mod = position % N;
-		if (mod == 0) {
-			targetPosition[0] = position / N - 1;
-			targetPosition[1] = N - 1;
-		} else {
-			targetPosition[0] = position / N;
-			targetPosition[1] = mod - 1;
+	public static Board decode(int N, long[] code, int offset) {
+		int cells = N * N;
+		if (N <= PACKED_MAX_N) {
+			long packed = code[offset];
+			int blank = 0;
+			while (blank < cells - 1 && (packed >>> (4 * blank) & 0xF) != 0)
+				blank++;
+			return new Board(N, packed, null, blank);
+		}
+		byte[] tiles = new byte[cells];
+		int blank = 0;
+		for (int i = 0; i < cells; i++) {
+			tiles[i] = (byte) (code[offset + i / 8] >>> (8 * (i % 8)));
+			if (tiles[i] == 0)
+				blank = i;
 		}
-		return targetPosition;
+		return new Board(N, 0, tiles, blank);
+	}
+
+	/**
+	 * Manhattan distance of a block at index from its goal
+	 * @param tile a block, not the blank
+	 * @param index row-major position
+	 * @return
+	 */
+	private int distance(int tile, int index) {
+		int goal = tile - 1;
+		return Math.abs(index / N - goal / N) + Math.abs(index % N - goal % N);
+	}
+
+	/**
+	 * Board with the block at index from moved into the blank. Only that
+	 * block changes distance, so the child's Manhattan distance is O(1).
+	 * @param from a position next to the blank
+	 * @return
+	 */
+	private Board moved(int from) {
+		int tile = tile(from);
+		int childManhattan = manhattan - distance(tile, from) + distance(tile, blank);
+		if (tiles == null)
+			return new Board(N, packed & ~(0xFL << (4 * from)) | (long) tile << (4 * blank),
+					null, from, childManhattan);
+		byte[] movedTiles = tiles.clone();
+		movedTiles[blank] = (byte) tile;
+		movedTiles[from] = 0;
+		return new Board(N, 0, movedTiles, from, childManhattan);
+	}
+
+	/**
+	 * Board with the blocks at positions a and b exchanged
+	 * @param a
+	 * @param b
+	 * @return
+	 */
+	private Board swapped(int a, int b) {
+		int tileA = tile(a), tileB = tile(b);
+		if (tiles == null) {
+			long cleared = packed & ~(0xFL << (4 * a)) & ~(0xFL << (4 * b));
+			return new Board(N, cleared | (long) tileA << (4 * b) | (long) tileB << (4 * a),
+					null, blank, manhattan - distance(tileA, a) - distance(tileB, b)
+							+ distance(tileA, b) + distance(tileB, a));
+		}
+		byte[] swappedTiles = tiles.clone();
+		swappedTiles[a] = (byte) tileB;
+		swappedTiles[b] = (byte) tileA;
+		return new Board(N, 0, swappedTiles, blank, manhattan - distance(tileA, a)
+				- distance(tileB, b) + distance(tileA, b) + distance(tileB, a));
 	}
 
 	/**
@@ -141,11 +234,11 @@ public final class Board {
 	public int hamming() 
 	{
 		int count = 0;
-		for (int i = 0; i < N; i++)
-			for (int j = 0; j < N; j++)
-				if (!(i == N - 1 && j == N - 1)
-						&& board[i][j] != (i * N + j + 1))
-					count++;
+		for (int i = 0; i < N * N; i++) {
+			int tile = tile(i);
+			if (tile != 0 && tile != i + 1)
+				count++;
+		}
 		return count;
 	}
 
@@ -155,22 +248,19 @@ public final class Board {
 	 */
 	public int manhattan() 
 	{
-		if (this.manhattan != -1)
-			return manhattan; // simple cashing
-		int x_moves = 0;
-		int y_moves = 0;
-		for (int i = 0; i < N; i++) {
-			for (int j = 0; j < N; j++) {
-				if (board[i][j] == 0)
-					continue;
-				x_moves += Math.abs(i - getTargetPosition(board[i][j])[0]);
-				y_moves += Math.abs(j - getTargetPosition(board[i][j])[1]);
-			}
-		}
-		manhattan = x_moves + y_moves;
 		return manhattan;
 	}
 
+	private int computeManhattan() {
+		int moves = 0;
+		for (int i = 0; i < N * N; i++) {
+			int tile = tile(i);
+			if (tile != 0)
+				moves += distance(tile, i);
+		}
+		return moves;
+	}
+
 	/**
 	 * is this board the goal board?
 	 * @return
@@ -186,14 +276,41 @@ public final class Board {
 	 */
 	public Board twin() 
 	{
-		Board twinBoard = new Board(board);
-		try {
-			twinBoard.swapElement(0, 0, 0, 1);
-		} catch (Exception e) {
-			// TODO Auto-generated catch block
-			e.printStackTrace();
+		if (blank == 0 || blank == 1)	// first row holds the blank, use the second
+			return swapped(N, N + 1);
+		return swapped(0, 1);
+	}
+
+	/**
+	 * is the board solvable? A move keeps the parity of the permutation of the
+	 * blocks (read in row-major order, blank left out), except a vertical move
+	 * on an even board, which flips it and moves the blank a row: the goal is
+	 * reachable when the parity of inversions (plus the blank row if N is even)
+	 * matches the goal's. Inversions are counted with a Fenwick tree over the
+	 * block values, in O(N^2 log N).
+	 * @return
+	 */
+	public boolean isSolvable() 
+	{
+		int cells = N * N;
+		int[] tree = new int[cells];	// counts of the blocks seen so far, by value
+		long inversions = 0;
+		int seen = 0;
+		for (int i = 0; i < cells; i++) {
+			int tile = tile(i);
+			if (tile == 0)
+				continue;
+			int smaller = 0;			// blocks seen so far with a value <= tile
+			for (int v = tile; v > 0; v -= v & -v)
+				smaller += tree[v];
+			inversions += seen - smaller;
+			for (int v = tile; v < cells; v += v & -v)
+				tree[v]++;
+			seen++;
 		}
-		return twinBoard;
+		if (N % 2 == 1)
+			return inversions % 2 == 0;
+		return (inversions + blank / N) % 2 == 1;
 	}
 
 	/* (non-Javadoc)
@@ -207,7 +324,21 @@ public final class Board {
 		if (y.getClass() != this.getClass())
 			return false;
 		Board that = (Board) y;
-		return (Arrays.deepEquals(this.board, that.board));
+		if (this.N != that.N)
+			return false;
+		if (tiles == null)
+			return this.packed == that.packed;
+		return this.blank == that.blank && Arrays.equals(this.tiles, that.tiles);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	public int hashCode() {
+		if (tiles != null)
+			return Arrays.hashCode(tiles);
+		long h = packed * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
 	}
 
 	/**
@@ -216,51 +347,67 @@ public final class Board {
 	 */
 	public Iterable<Board> neighbors() 
 	{
-		Stack<Board> stackOfNeighbors = new Stack<Board>();
-		Board newBoard;
-		int x0 = getEmptyX();
-		int y0 = getEmptyY();
-		if (x0 > 0) {
-			newBoard = new Board(board);
-			try {
-				newBoard.moveEmpty(x0, y0, x0 - 1, y0);
-			} catch (Exception e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			stackOfNeighbors.push(newBoard);
-		}
-		if (x0 < N - 1) {
-			newBoard = new Board(board);
-			try {
-				newBoard.moveEmpty(x0, y0, x0 + 1, y0);
-			} catch (Exception e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			stackOfNeighbors.push(newBoard);
-		}
-		if (y0 > 0) {
-			newBoard = new Board(board);
-			try {
-				newBoard.moveEmpty(x0, y0, x0, y0 - 1);
-			} catch (Exception e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			stackOfNeighbors.push(newBoard);
-		}
-		if (y0 < N - 1) {
-			newBoard = new Board(board);
-			try {
-				newBoard.moveEmpty(x0, y0, x0, y0 + 1);
-			} catch (Exception e) {
-				// TODO Auto-generated catch block
-				e.printStackTrace();
-			}
-			stackOfNeighbors.push(newBoard);
+		Board[] buffer = new Board[4];
+		return Arrays.asList(buffer).subList(0, neighbors(buffer));
+	}
+
+	/**
+	 * writes all neighboring boards into buffer[0..count), in the order
+	 * neighbors() returns them
+	 * @param buffer at least 4 long, reused by the caller
+	 * @return count, the number of neighbors
+	 */
+	public int neighbors(Board[] buffer) 
+	{
+		int count = 0;
+		int x0 = blank / N;
+		int y0 = blank % N;
+		if (y0 < N - 1)
+			buffer[count++] = moved(blank + 1);
+		if (y0 > 0)
+			buffer[count++] = moved(blank - 1);
+		if (x0 < N - 1)
+			buffer[count++] = moved(blank + N);
+		if (x0 > 0)
+			buffer[count++] = moved(blank - N);
+		return count;
+	}
+
+	/**
+	 * the board after the blank moves one step
+	 * @param direction RIGHT, LEFT, DOWN or UP
+	 * @return the neighbor, null if the blank would leave the board
+	 */
+	public Board move(int direction) 
+	{
+		int x0 = blank / N;
+		int y0 = blank % N;
+		switch (direction) {
+		case RIGHT: return y0 < N - 1 ? moved(blank + 1) : null;
+		case LEFT: return y0 > 0 ? moved(blank - 1) : null;
+		case DOWN: return x0 < N - 1 ? moved(blank + N) : null;
+		case UP: return x0 > 0 ? moved(blank - N) : null;
+		default: throw new IllegalArgumentException("direction " + direction);
 		}
-		return stackOfNeighbors;
+	}
+
+	/**
+	 * direction the blank moves from this board to a neighbor
+	 * @param neighbor
+	 * @return RIGHT, LEFT, DOWN or UP
+	 */
+	public int directionTo(Board neighbor) 
+	{
+		int step = neighbor.blank - blank;
+		if (step == 1 && blank % N < N - 1)
+			return RIGHT;
+		if (step == -1 && blank % N > 0)
+			return LEFT;
+		if (step == N)
+			return DOWN;
+		if (step == -N)
+			return UP;
+		throw new IllegalArgumentException("not a neighbor");
 	}
 
 	public String toString() { // string representation of the board (in the
@@ -269,7 +416,7 @@ public final class Board {
 		s.append(N + "\n");
 		for (int i = 0; i < N; i++) {
 			for (int j = 0; j < N; j++) {
-				s.append(String.format("%2d ", board[i][j]));
+				s.append(String.format("%2d ", tile(i * N + j)));
 			}
 			s.append("\n");
 		}
@@ -0,0 +1,180 @@
+/**
+ * BoardTable.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Board.java
+ *
+ * Transposition table of the search: a primitive hash map from boards to
+ * int (the best number of moves found to reach them), open addressing with
+ * linear probing. Boards are keyed by their compact encoding, Board.encode(),
+ * codeLength(N) longs stored inline, so no Board is retained by the table.
+ * offer() both detects duplicates and keeps the cheapest cost.
+ *
+ */
+import java.util.Arrays;
+
+public class BoardTable {
+	private final int N;			// board size
+	private final int width;		// longs per key
+	private final long[] scratch;	// encoding of the board being looked up
+	private long[] keys;			// width longs per slot
+	private int[] values;			// slot values
+	private boolean[] used;			// is the slot taken
+	private int size;				// number of entries
+	private int mask;				// capacity - 1, capacity is a power of 2
+
+	/**
+	 * @param N board dimension
+	 * @param expectedSize number of boards expected, the table grows past it
+	 */
+	public BoardTable(int N, int expectedSize) {
+		this.N = N;
+		this.width = Board.codeLength(N);
+		this.scratch = new long[width];
+		int capacity = 16;
+		while (capacity < 2 * expectedSize)
+			capacity <<= 1;
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity * width];
+		values = new int[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * board dimension of the keys
+	 * @return
+	 */
+	public int dimension() {
+		return N;
+	}
+
+	/**
+	 * number of boards
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * removes all boards, keeping the capacity
+	 */
+	public void clear() {
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	/**
+	 * Slot holding the key code[offset..offset + width), or the free slot
+	 * where it belongs
+	 */
+	private int slot(long[] code, int offset) {
+		long h = 0;
+		for (int w = 0; w < width; w++)
+			h = (h + code[offset + w]) * 0x9E3779B97F4A7C15L;
+		int i = (int) (h ^ (h >>> 29)) & mask;
+		while (used[i] && !matches(i, code, offset))
+			i = (i + 1) & mask;
+		return i;
+	}
+
+	private boolean matches(int slot, long[] code, int offset) {
+		int base = slot * width;
+		for (int w = 0; w < width; w++)
+			if (keys[base + w] != code[offset + w])
+				return false;
+		return true;
+	}
+
+	/**
+	 * @param board
+	 * @param missing value returned for an unknown board
+	 * @return the value mapped to board or missing
+	 */
+	public int get(Board board, int missing) {
+		board.encode(scratch, 0);
+		return get(scratch, 0, missing);
+	}
+
+	/**
+	 * get() for an encoded board
+	 * @param code
+	 * @param offset first long of the encoding
+	 * @param missing value returned for an unknown board
+	 * @return
+	 */
+	public int get(long[] code, int offset, int missing) {
+		int i = slot(code, offset);
+		return used[i] ? values[i] : missing;
+	}
+
+	/**
+	 * Maps board to value unless it is already mapped to a smaller or equal one
+	 * @param board
+	 * @param value
+	 * @return true if board was new or its value went down
+	 */
+	public boolean offer(Board board, int value) {
+		board.encode(scratch, 0);
+		return offer(scratch, 0, value);
+	}
+
+	/**
+	 * offer() for an encoded board
+	 * @param code
+	 * @param offset first long of the encoding
+	 * @param value
+	 * @return true if the board was new or its value went down
+	 */
+	public boolean offer(long[] code, int offset, int value) {
+		int i = slot(code, offset);
+		if (used[i]) {
+			if (values[i] <= value)
+				return false;
+			values[i] = value;
+			return true;
+		}
+		System.arraycopy(code, offset, keys, i * width, width);
+		values[i] = value;
+		used[i] = true;
+		if (++size > (mask + 1) / 2)
+			rehash();
+		return true;
+	}
+
+	/**
+	 * Maps an encoded board to value, replacing any previous value
+	 * @param code
+	 * @param offset first long of the encoding
+	 * @param value
+	 */
+	public void put(long[] code, int offset, int value) {
+		int i = slot(code, offset);
+		values[i] = value;
+		if (used[i])
+			return;
+		System.arraycopy(code, offset, keys, i * width, width);
+		used[i] = true;
+		if (++size > (mask + 1) / 2)
+			rehash();
+	}
+
+	private void rehash() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(2 * oldUsed.length);
+		for (int j = 0; j < oldUsed.length; j++) {
+			if (!oldUsed[j])
+				continue;
+			int i = slot(oldKeys, j * width);
+			System.arraycopy(oldKeys, j * width, keys, i * width, width);
+			values[i] = oldValues[j];
+			used[i] = true;
+		}
+	}
+}
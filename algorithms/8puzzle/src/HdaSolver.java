@@ -0,0 +1,391 @@
+/**
+ * HdaSolver.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Dependencies: stdlib.jar algs4.jar Board.java SearchArena.java
+ *               Heuristic.java PatternDatabase.java
+ *
+ * Hash-distributed parallel A* (HDA*) solver with the same API as Solver.
+ * The boards are partitioned among the workers by hash: every worker owns
+ * one partition, with its own SearchArena as open and closed lists, so no
+ * search structure is shared. A worker expands its best node and sends every
+ * neighbor it does not own to the owner's mailbox, a ConcurrentLinkedQueue,
+ * in batches of encoded boards with their moves and priority.
+ * The first goal generated gives the incumbent U, the shortest solution
+ * found so far; nodes with priority U or more are dropped.
+ * Termination: an AtomicLong counts the busy workers plus the batches in
+ * flight. A batch is counted before it is posted and uncounted once its
+ * nodes are in the receiver's open list, and an idle worker counts itself
+ * busy again before it takes a batch. The count therefore reaches 0 only
+ * when no open list holds a node better than U and no batch is on its way,
+ * which proves U optimal; once 0 it stays 0. A worker with nothing to do
+ * parks until a batch is posted to it, or for IDLE_PARK at most, so idle
+ * workers leave the cores to the busy ones.
+ * No parent pointers cross partitions: the solution is rebuilt from the goal
+ * by stepping to the neighbor with the fewest moves recorded in its owner's
+ * arena, which is always fewer than the current board's.
+ *
+ */
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+public class HdaSolver {
+	private static final int BATCH = 64;	// boards per mailbox message
+	private static final int FLUSH = 256;	// expansions between two flushes of the outboxes
+	private static final long IDLE_PARK = 1000000L;	// longest nap of an idle worker, in ns
+
+	private final int width;				// longs per board code
+	private final int workers;				// number of partitions
+	private final Heuristic heuristic;		// h of the priority moves + h
+	private final SearchArena[] arenas;		// open and closed lists of every partition
+	private final ConcurrentLinkedQueue<long[]>[] mailboxes;	// batches sent to every partition
+	private final Thread[] threads;			// thread of every partition, unparked by posts
+	private final AtomicLong active = new AtomicLong();	// busy workers + batches in flight
+	private final AtomicInteger best = new AtomicInteger(Integer.MAX_VALUE);	// U
+	private volatile Throwable failure;		// first error of a worker
+
+	private boolean isSolvable = false;
+	private Stack<Board> historyBoards;		//solution history
+	private long nodes;						// boards expanded by all the workers
+
+	/**
+	 * find a solution to the initial board (using HDA* with the Manhattan
+	 * priority function on all the processors)
+	 * @param initial
+	 */
+	public HdaSolver(Board initial)
+	{
+		this(initial, Heuristic.MANHATTAN, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * find a solution to the initial board (using HDA* with the given
+	 * heuristic, which must never overestimate and is called by all the
+	 * workers at once)
+	 * @param initial
+	 * @param heuristic
+	 * @param workers number of worker threads, at least 1
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public HdaSolver(Board initial, Heuristic heuristic, int workers)
+	{
+		if (workers < 1)
+			throw new IllegalArgumentException("at least one worker is needed: " + workers);
+		this.width = Board.codeLength(initial.dimension());
+		this.workers = workers;
+		this.heuristic = heuristic;
+		this.arenas = new SearchArena[workers];
+		this.mailboxes = new ConcurrentLinkedQueue[workers];
+		this.threads = new Thread[workers];
+		if (!initial.isSolvable())
+			return;		// decided by parity, no search needed
+		isSolvable = true;
+		for (int w = 0; w < workers; w++) {
+			arenas[w] = new SearchArena();
+			arenas[w].reset(initial.dimension());
+			mailboxes[w] = new ConcurrentLinkedQueue<long[]>();
+		}
+
+		if (initial.isGoal())
+			best.set(0);
+		else {
+			SearchArena root = arenas[owner(initial)];
+			root.push(root.add(initial, 0, -1), heuristic.estimate(initial));
+		}
+
+		Worker[] team = new Worker[workers];
+		active.set(workers);
+		for (int w = 0; w < workers; w++) {
+			team[w] = new Worker(w);
+			threads[w] = new Thread(team[w], "hda-" + w);
+		}
+		for (int w = 0; w < workers; w++)	// all created before any can post
+			threads[w].start();
+		for (int w = 0; w < workers; w++) {
+			try {
+				threads[w].join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("interrupted while solving", e);
+			}
+			nodes += team[w].expanded;
+		}
+		if (failure != null)
+			throw new IllegalStateException("worker failed", failure);
+		historyBoards = path(initial.dimension());
+	}
+
+	/**
+	 * @param board
+	 * @return the worker owning board
+	 */
+	private int owner(Board board) {
+		long h = (board.hashCode() * 0x85EBCA6BL) & 0xFFFFFFFFL;
+		return (int) ((h * workers) >>> 32);
+	}
+
+	/**
+	 * @param board
+	 * @return fewest moves recorded to board, Integer.MAX_VALUE if it was
+	 *         never reached
+	 */
+	private int recorded(Board board) {
+		SearchArena arena = arenas[owner(board)];
+		int node = arena.find(board);
+		return node < 0 ? Integer.MAX_VALUE : arena.cost(node);
+	}
+
+	/**
+	 * Boards of a shortest solution, rebuilt backwards from the goal: every
+	 * recorded board but the initial one was generated by a board recorded
+	 * with fewer moves
+	 * @param N
+	 * @return
+	 */
+	private Stack<Board> path(int N) {
+		int[][] blocks = new int[N][N];
+		for (int i = 0; i < N * N - 1; i++)
+			blocks[i / N][i % N] = i + 1;
+		Board current = new Board(blocks);
+		Stack<Board> boards = new Stack<Board>();
+		boards.push(current);
+		Board[] buffer = new Board[4];
+		for (int moves = best.get(); moves > 0; ) {
+			int count = current.neighbors(buffer);
+			Board previous = null;
+			for (int i = 0; i < count; i++) {
+				int g = recorded(buffer[i]);
+				if (g < moves) {
+					moves = g;
+					previous = buffer[i];
+				}
+			}
+			current = previous;
+			boards.push(current);
+		}
+		return boards;
+	}
+
+	/**
+	 * Search of one partition
+	 */
+	private final class Worker implements Runnable {
+		private final int id;					// partition
+		private final SearchArena arena;		// open and closed lists
+		private final long[][] outboxes;		// batch being filled for every partition
+		private final int[] outSizes;			// longs used in every batch
+		private final Board[] buffer = new Board[4];	// neighbor buffer
+		private long expanded;					// boards expanded
+		private boolean busy = true;			// counted in active?
+
+		Worker(int id) {
+			this.id = id;
+			this.arena = arenas[id];
+			this.outboxes = new long[workers][];
+			this.outSizes = new int[workers];
+		}
+
+		@Override
+		public void run() {
+			try {
+				search();
+			} catch (Throwable e) {
+				failure = e;
+			}
+		}
+
+		private void search() {
+			int sinceFlush = 0;
+			while (failure == null) {
+				long[] batch = mailboxes[id].poll();
+				if (batch != null) {
+					if (!busy) {
+						active.incrementAndGet();
+						busy = true;
+					}
+					receive(batch);
+					active.decrementAndGet();
+					continue;
+				}
+				if (busy) {
+					int node = next();
+					if (node >= 0) {
+						expand(node);
+						if (++sinceFlush == FLUSH) {
+							flush();
+							sinceFlush = 0;
+						}
+						continue;
+					}
+					flush();
+					sinceFlush = 0;
+					busy = false;
+					active.decrementAndGet();
+				}
+				if (active.get() == 0)
+					return;
+				LockSupport.parkNanos(this, IDLE_PARK);
+			}
+		}
+
+		/**
+		 * @return a node of the open list with priority under U, -1 if none
+		 */
+		private int next() {
+			while (true) {
+				int f = arena.minPriority();
+				if (f < 0 || f >= best.get())
+					return -1;
+				int node = arena.pop();
+				if (!arena.isStale(node))
+					return node;
+			}
+		}
+
+		private void expand(int node) {
+			expanded++;
+			int moves = arena.cost(node) + 1;
+			int count = arena.board(node).neighbors(buffer);
+			for (int i = 0; i < count; i++) {
+				Board child = buffer[i];
+				if (child.isGoal()) {
+					int u = best.get();
+					while (moves < u && !best.compareAndSet(u, moves))
+						u = best.get();
+					continue;
+				}
+				int f = moves + heuristic.estimate(child);
+				if (f >= best.get())
+					continue;
+				int to = owner(child);
+				if (to == id) {
+					int c = arena.add(child, moves, -1);
+					if (c >= 0)
+						arena.push(c, f);
+				} else
+					send(to, child, moves, f);
+			}
+		}
+
+		/**
+		 * Appends a board to the batch of its owner, posted once full; an
+		 * entry is the board code then moves and priority in one long
+		 */
+		private void send(int to, Board board, int moves, int f) {
+			if (outboxes[to] == null)
+				outboxes[to] = new long[BATCH * (width + 1)];
+			long[] outbox = outboxes[to];
+			board.encode(outbox, outSizes[to]);
+			outbox[outSizes[to] + width] = (long) moves << 32 | f;
+			outSizes[to] += width + 1;
+			if (outSizes[to] == outbox.length)
+				post(to);
+		}
+
+		private void post(int to) {
+			active.incrementAndGet();	// before the receiver can uncount it
+			mailboxes[to].add(Arrays.copyOf(outboxes[to], outSizes[to]));
+			outSizes[to] = 0;
+			LockSupport.unpark(threads[to]);
+		}
+
+		private void flush() {
+			for (int to = 0; to < workers; to++)
+				if (outSizes[to] > 0)
+					post(to);
+		}
+
+		private void receive(long[] batch) {
+			int u = best.get();
+			for (int off = 0; off < batch.length; off += width + 1) {
+				int moves = (int) (batch[off + width] >>> 32);
+				int f = (int) batch[off + width];
+				if (f >= u)
+					continue;
+				int c = arena.add(batch, off, moves, -1);
+				if (c >= 0)
+					arena.push(c, f);
+			}
+		}
+	}
+
+	/**
+	 * is the initial board solvable?
+	 * @return
+	 */
+	public boolean isSolvable()
+	{
+		return isSolvable;
+	}
+
+	/**
+	 * min number of moves to solve initial board; -1 if no solution
+	 * @return
+	 */
+	public int moves()
+	{
+		if (isSolvable)
+			return historyBoards.size() - 1;
+		else
+			return -1;
+	}
+
+	/**
+	 * number of boards expanded by all the workers
+	 * @return
+	 */
+	public long nodes()
+	{
+		return nodes;
+	}
+
+	/**
+	 * sequence of boards in a shortest solution; null if no solution
+	 * @return
+	 */
+	public Iterable<Board> solution()
+	{
+		if (!isSolvable)
+			return null;
+		return historyBoards;
+	}
+
+	/**
+	 * Solves the board of a file
+	 * @param args puzzle file, then options: -threads count, -pdb file
+	 */
+	public static void main(String[] args) {
+		// create initial board from file
+		In in = new In(args[0]);
+		int N = in.readInt();
+		int[][] blocks = new int[N][N];
+		for (int i = 0; i < N; i++)
+			for (int j = 0; j < N; j++)
+				blocks[i][j] = in.readInt();
+		Board initial = new Board(blocks);
+
+		int threads = Runtime.getRuntime().availableProcessors();
+		Heuristic heuristic = Heuristic.MANHATTAN;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("-threads"))
+				threads = Integer.parseInt(args[++i]);
+			else if (args[i].equals("-pdb"))
+				heuristic = PatternDatabase.load(args[++i]);
+		}
+
+		// solve the puzzle
+		HdaSolver solver = new HdaSolver(initial, heuristic, threads);
+
+		// print solution to standard output
+		if (!solver.isSolvable())
+			StdOut.println("No solution possible");
+		else {
+			StdOut.println("Minimum number of moves = " + solver.moves());
+			for (Board board : solver.solution())
+				StdOut.println(board);
+		}
+	}
+}
@@ -0,0 +1,160 @@
+/**
+ * Heuristic.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Board.java LinearConflict.java WalkingDistance.java
+ *               MaxHeuristic.java PatternDatabase.java
+ *
+ * Lower bound on the number of moves left to solve a board, the h part of
+ * the A* priority moves + h. An admissible heuristic never overestimates,
+ * which keeps the solutions found optimal.
+ * estimate() rates a Board from scratch. A search working on one mutable
+ * board (IdaSolver) asks for a Tracker instead, which follows the board move
+ * by move and updates its value from the cells a move touched only.
+ *
+ */
+public interface Heuristic {
+
+	/**
+	 * sum of Manhattan distances between blocks and goal
+	 */
+	Heuristic MANHATTAN = new Heuristic() {
+		public int estimate(Board board) {
+			return board.manhattan();
+		}
+
+		public Tracker tracker(final int[] tiles, final int N) {
+			return new Tracker() {
+				private int value = initial();
+
+				private int initial() {
+					int sum = 0;
+					for (int i = 0; i < tiles.length; i++)
+						if (tiles[i] != 0)
+							sum += distance(tiles[i], i);
+					return sum;
+				}
+
+				private int distance(int tile, int index) {
+					return Math.abs(index / N - (tile - 1) / N)
+							+ Math.abs(index % N - (tile - 1) % N);
+				}
+
+				public int value() {
+					return value;
+				}
+
+				public void moved(int from, int to) {
+					value += distance(tiles[to], to) - distance(tiles[to], from);
+				}
+			};
+		}
+
+		public String toString() {
+			return "manhattan";
+		}
+	};
+
+	/**
+	 * number of blocks out of place
+	 */
+	Heuristic HAMMING = new Heuristic() {
+		public int estimate(Board board) {
+			return board.hamming();
+		}
+
+		public Tracker tracker(final int[] tiles, int N) {
+			return new Tracker() {
+				private int value = initial();
+
+				private int initial() {
+					int sum = 0;
+					for (int i = 0; i < tiles.length; i++)
+						if (tiles[i] != 0 && tiles[i] != i + 1)
+							sum++;
+					return sum;
+				}
+
+				public int value() {
+					return value;
+				}
+
+				public void moved(int from, int to) {
+					int tile = tiles[to];
+					value += (tile != to + 1 ? 1 : 0) - (tile != from + 1 ? 1 : 0);
+				}
+			};
+		}
+
+		public String toString() {
+			return "hamming";
+		}
+	};
+
+	/**
+	 * Manhattan distance plus 2 moves per linear conflict
+	 */
+	Heuristic LINEAR_CONFLICT = new LinearConflict();
+
+	/**
+	 * walking distance, boards up to 4x4
+	 */
+	Heuristic WALKING_DISTANCE = new WalkingDistance();
+
+	/**
+	 * Value of one mutable board, kept up to date as the board changes
+	 */
+	interface Tracker {
+		/**
+		 * @return lower bound on the moves needed to solve the board now
+		 */
+		int value();
+
+		/**
+		 * Tells that the block at from has just slid into the blank at to;
+		 * the board already shows the move. Undoing a move is the move back.
+		 * @param from
+		 * @param to
+		 */
+		void moved(int from, int to);
+	}
+
+	/**
+	 * @param board
+	 * @return lower bound on the moves needed to solve board
+	 */
+	int estimate(Board board);
+
+	/**
+	 * @param tiles row-major blocks of a board, 0 for the blank, that the
+	 *              caller changes and reports through Tracker.moved()
+	 * @param N board dimension
+	 * @return a tracker of tiles
+	 */
+	Tracker tracker(int[] tiles, int N);
+
+	/**
+	 * Heuristic named on a command line
+	 * @param name manhattan, hamming, linear, walking, max (of linear and
+	 *             walking), max:a,b,... (of the named ones), or else the
+	 *             file of a PatternDatabase
+	 * @return
+	 */
+	static Heuristic forName(String name) {
+		switch (name) {
+		case "manhattan": return MANHATTAN;
+		case "hamming": return HAMMING;
+		case "linear": return LINEAR_CONFLICT;
+		case "walking": return WALKING_DISTANCE;
+		case "max": return new MaxHeuristic(LINEAR_CONFLICT, WALKING_DISTANCE);
+		default:
+			if (!name.startsWith("max:"))
+				return PatternDatabase.load(name);
+			String[] names = name.substring(4).split(",");
+			Heuristic[] parts = new Heuristic[names.length];
+			for (int i = 0; i < names.length; i++)
+				parts[i] = forName(names[i].trim());
+			return new MaxHeuristic(parts);
+		}
+	}
+}
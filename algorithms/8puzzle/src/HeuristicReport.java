@@ -0,0 +1,96 @@
+/**
+ * HeuristicReport.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: stdlib.jar algs4.jar Board.java Heuristic.java IdaSolver.java
+ *               Solver.java
+ *
+ * Solves every board of a set of files with every heuristic of a list and
+ * reports, per board and heuristic, the initial estimate, the solution
+ * length, the boards expanded and the time, then the totals per heuristic:
+ * the cheapest heuristic that is good enough for each board size.
+ * A better informed heuristic expands fewer boards but costs more per board,
+ * so both columns matter. Solution lengths must agree whatever the
+ * heuristic; a disagreement is flagged, as it means an inadmissible one.
+ *
+ */
+import java.util.ArrayList;
+import java.util.List;
+
+public class HeuristicReport {
+
+	/**
+	 * @param args options then puzzle files: -h name (repeatable, as
+	 *             Heuristic.forName() reads it; manhattan, linear, walking
+	 *             and max by default), -astar to use Solver instead of
+	 *             IdaSolver
+	 */
+	public static void main(String[] args) {
+		List<String> names = new ArrayList<String>();
+		List<String> files = new ArrayList<String>();
+		boolean astar = false;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("-h"))
+				names.add(args[++i]);
+			else if (args[i].equals("-astar"))
+				astar = true;
+			else
+				files.add(args[i]);
+		}
+		if (names.isEmpty())
+			for (String name : new String[] { "manhattan", "linear", "walking", "max" })
+				names.add(name);
+		Heuristic[] heuristics = new Heuristic[names.size()];
+		for (int k = 0; k < heuristics.length; k++)
+			heuristics[k] = Heuristic.forName(names.get(k));
+
+		long[] totalNodes = new long[heuristics.length];
+		double[] totalMillis = new double[heuristics.length];
+		StdOut.printf("%-24s %2s %-22s %5s %5s %12s %10s%n", "board", "N", "heuristic", "h", "moves",
+				"nodes", "ms");
+		for (String file : files) {
+			In in = new In(file);
+			int N = in.readInt();
+			int[][] blocks = new int[N][N];
+			for (int i = 0; i < N; i++)
+				for (int j = 0; j < N; j++)
+					blocks[i][j] = in.readInt();
+			Board initial = new Board(blocks);
+
+			int expected = -2;		// moves of the first heuristic that could run
+			for (int k = 0; k < heuristics.length; k++) {
+				int h;
+				try {
+					h = heuristics[k].estimate(initial);
+				} catch (IllegalArgumentException e) {
+					StdOut.printf("%-24s %2d %-22s %s%n", file, N, heuristics[k], "n/a: " + e.getMessage());
+					continue;
+				}
+				long start = System.nanoTime();
+				int moves;
+				long nodes;
+				if (astar) {
+					Solver solver = new Solver(initial, heuristics[k]);
+					moves = solver.moves();
+					nodes = solver.nodes();
+				} else {
+					IdaSolver solver = new IdaSolver(initial, heuristics[k]);
+					moves = solver.moves();
+					nodes = solver.nodes();
+				}
+				double millis = (System.nanoTime() - start) / 1e6;
+				totalNodes[k] += nodes;
+				totalMillis[k] += millis;
+				if (expected == -2)
+					expected = moves;
+				StdOut.printf("%-24s %2d %-22s %5d %5d %12d %10.1f%s%n", file, N, heuristics[k], h,
+						moves, nodes, millis, moves == expected ? "" : "  MOVES DIFFER");
+			}
+		}
+
+		StdOut.println();
+		for (int k = 0; k < heuristics.length; k++)
+			StdOut.printf("total %-22s %12d nodes %10.1f ms%n", heuristics[k], totalNodes[k],
+					totalMillis[k]);
+	}
+}
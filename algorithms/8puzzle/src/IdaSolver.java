@@ -0,0 +1,232 @@
+/**
+ * IdaSolver.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Dependencies: stdlib.jar algs4.jar Board.java MoveSequence.java
+ *               Heuristic.java
+ *
+ * Iterative-deepening A* (IDA*) solver with the same API as Solver, for
+ * boards whose A* frontier would not fit in memory (4x4 and 5x5).
+ * Depth-first searches are run with a growing bound on moves + h:
+ * a branch is cut as soon as it exceeds the bound, and the next bound is the
+ * smallest value that was cut. All searches work on a single mutable int[]
+ * board: a move slides a block into the blank and is undone on the way back,
+ * the Manhattan distance is updated by the moved block only, and the move
+ * undoing the previous one is never tried. h comes from a Heuristic.Tracker
+ * told of every move and its undo, so it is maintained incrementally too;
+ * the Manhattan distance only detects the goal.
+ * Memory is O(N^2 + solution length), whatever the number of nodes visited.
+ * Unsolvable boards are detected up front by Board.isSolvable(), since
+ * IDA* would search them forever.
+ *
+ */
+public class IdaSolver {
+	private static final int FOUND = -1;	// search() result once the goal is reached
+
+	private final int N;				// board size
+	private final int[] tiles;			// mutable board, row-major
+	private final int[][] adjacent;		// positions next to every position
+	private final int[] distance;		// distance[tile * N * N + index] to tile's goal
+	private int blank;					// index of the blank
+	private int manhattan;				// current Manhattan distance
+	private final Heuristic.Tracker h;	// current h
+	private int[] path;					// blank position after each move
+	private long nodes;					// boards visited
+
+	private boolean isSolvable = false;
+	private int moves = -1;				// solution length
+	private MoveSequence history;		// solution, as moves
+
+	/**
+	 * find a solution to the initial board (using the IDA* algorithm with the
+	 * Manhattan priority function)
+	 * @param initial
+	 */
+	public IdaSolver(Board initial)
+	{
+		this(initial, Heuristic.MANHATTAN);
+	}
+
+	/**
+	 * find a solution to the initial board (using the IDA* algorithm with the
+	 * given heuristic, which must never overestimate)
+	 * @param initial
+	 * @param heuristic
+	 */
+	public IdaSolver(Board initial, Heuristic heuristic)
+	{
+		this.N = initial.dimension();
+		int cells = N * N;
+		tiles = new int[cells];
+		for (int i = 0; i < cells; i++) {
+			tiles[i] = initial.tile(i);
+			if (tiles[i] == 0)
+				blank = i;
+		}
+
+		adjacent = new int[cells][];
+		distance = new int[cells * cells];
+		for (int i = 0; i < cells; i++) {
+			int row = i / N, col = i % N, count = 0;
+			int[] next = new int[4];
+			if (col < N - 1)
+				next[count++] = i + 1;
+			if (col > 0)
+				next[count++] = i - 1;
+			if (row < N - 1)
+				next[count++] = i + N;
+			if (row > 0)
+				next[count++] = i - N;
+			adjacent[i] = java.util.Arrays.copyOf(next, count);
+			for (int tile = 1; tile < cells; tile++)
+				distance[tile * cells + i] = Math.abs(row - (tile - 1) / N)
+						+ Math.abs(col - (tile - 1) % N);
+		}
+		manhattan = initial.manhattan();
+		h = heuristic.tracker(tiles, N);
+
+		if (!initial.isSolvable())
+			return;
+		isSolvable = true;
+		path = new int[Math.max(16, h.value())];
+		for (int bound = h.value();; ) {
+			int next = search(0, bound, -1);
+			if (next == FOUND)
+				break;
+			bound = next;
+		}
+
+		int[] directions = new int[moves];
+		for (int k = 0, from = initial.blankIndex(); k < moves; from = path[k++]) {
+			int step = path[k] - from;
+			directions[k] = step == 1 ? Board.RIGHT : step == -1 ? Board.LEFT
+					: step == N ? Board.DOWN : Board.UP;
+		}
+		history = new MoveSequence(initial, directions, moves);
+	}
+
+	/**
+	 * Depth-first search below the current board
+	 * @param g moves made so far
+	 * @param bound largest moves + h explored
+	 * @param previous position the blank came from, -1 at the root
+	 * @return FOUND, or the smallest moves + h cut by the bound
+	 */
+	private int search(int g, int bound, int previous) {
+		nodes++;
+		int f = g + h.value();
+		if (f > bound)
+			return f;
+		if (manhattan == 0) {
+			moves = g;
+			return FOUND;
+		}
+		if (g == path.length)
+			path = java.util.Arrays.copyOf(path, 2 * g);
+
+		int min = Integer.MAX_VALUE;
+		int from = blank, cells = tiles.length;
+		for (int to : adjacent[from]) {
+			if (to == previous)
+				continue;		// would undo the last move
+			int tile = tiles[to];
+			int delta = distance[tile * cells + from] - distance[tile * cells + to];
+			tiles[from] = tile;
+			tiles[to] = 0;
+			blank = to;
+			manhattan += delta;
+			h.moved(to, from);
+			path[g] = to;
+
+			int t = search(g + 1, bound, from);
+			if (t == FOUND)
+				return FOUND;
+
+			manhattan -= delta;
+			blank = from;
+			tiles[to] = tile;
+			tiles[from] = 0;
+			h.moved(from, to);
+			if (t < min)
+				min = t;
+		}
+		return min;
+	}
+
+	/**
+	 * is the initial board solvable?
+	 * @return
+	 */
+	public boolean isSolvable()
+	{
+		return isSolvable;
+	}
+
+	/**
+	 * min number of moves to solve initial board; -1 if no solution
+	 * @return
+	 */
+	public int moves()
+	{
+		return moves;
+	}
+
+	/**
+	 * number of boards visited by all the depth-first searches
+	 * @return
+	 */
+	public long nodes()
+	{
+		return nodes;
+	}
+
+	/**
+	 * moves of a shortest solution, 2 bits each; null if no solution
+	 * @return
+	 */
+	public MoveSequence moveSequence()
+	{
+		return history;
+	}
+
+	/**
+	 * sequence of boards in a shortest solution; null if no solution.
+	 * Boards are rebuilt by replaying the moves from the initial board.
+	 * @return
+	 */
+	public Iterable<Board> solution()
+	{
+		if (!isSolvable)
+			return null;
+		return history;
+	}
+
+	/**
+	 * Solves the board of a file
+	 * @param args puzzle file and optional heuristic, as Heuristic.forName()
+	 *             reads it
+	 */
+	public static void main(String[] args) {
+		// create initial board from file
+		In in = new In(args[0]);
+		int N = in.readInt();
+		int[][] blocks = new int[N][N];
+		for (int i = 0; i < N; i++)
+			for (int j = 0; j < N; j++)
+				blocks[i][j] = in.readInt();
+		Board initial = new Board(blocks);
+
+		// solve the puzzle
+		Heuristic heuristic = args.length > 1 ? Heuristic.forName(args[1]) : Heuristic.MANHATTAN;
+		IdaSolver solver = new IdaSolver(initial, heuristic);
+
+		// print solution to standard output
+		if (!solver.isSolvable())
+			StdOut.println("No solution possible");
+		else {
+			StdOut.println("Minimum number of moves = " + solver.moves());
+			for (Board board : solver.solution())
+				StdOut.println(board);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ * LinearConflict.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Board.java Heuristic.java
+ *
+ * Manhattan distance plus linear conflicts. Two blocks in their goal row but
+ * in reverse order cannot pass each other within the row: one of them has to
+ * leave it and come back, two moves Manhattan distance does not count. In
+ * every row, the blocks whose goal row it is must lose all but a longest
+ * increasing run of their goal columns; each block taken out adds 2 moves.
+ * Columns are counted the same way. Row conflicts cost vertical moves and
+ * column conflicts horizontal ones, so both add up with Manhattan distance
+ * and the sum stays admissible.
+ * A tracker keeps the conflicts of every line: a horizontal move only
+ * changes the two columns the block leaves and enters, a vertical move the
+ * two rows.
+ *
+ */
+public class LinearConflict implements Heuristic {
+	private final ThreadLocal<int[]> buffers = new ThreadLocal<int[]>();	// tiles of a board
+
+	/**
+	 * Blocks of a line at home in it that must step out so the others are in
+	 * goal order
+	 * @param tiles row-major blocks
+	 * @param N board dimension
+	 * @param line row or column index
+	 * @param isRow is line a row?
+	 * @param tails scratch of at least N ints
+	 * @return
+	 */
+	static int conflicts(int[] tiles, int N, int line, boolean isRow, int[] tails) {
+		int count = 0, run = 0;
+		for (int k = 0; k < N; k++) {
+			int tile = isRow ? tiles[line * N + k] : tiles[k * N + line];
+			if (tile == 0)
+				continue;
+			int home = isRow ? (tile - 1) / N : (tile - 1) % N;
+			if (home != line)
+				continue;
+			int key = isRow ? (tile - 1) % N : (tile - 1) / N;
+			count++;
+			// longest increasing run: tails[i] = smallest end of a run of i + 1
+			int i = 0;
+			while (i < run && tails[i] < key)
+				i++;
+			tails[i] = key;
+			if (i == run)
+				run++;
+		}
+		return count - run;
+	}
+
+	public int estimate(Board board) {
+		int N = board.dimension();
+		int[] tiles = buffers.get();
+		if (tiles == null || tiles.length != N * N) {
+			tiles = new int[N * N];
+			buffers.set(tiles);
+		}
+		for (int i = 0; i < N * N; i++)
+			tiles[i] = board.tile(i);
+		int[] tails = new int[N];
+		int sum = 0;
+		for (int line = 0; line < N; line++)
+			sum += conflicts(tiles, N, line, true, tails) + conflicts(tiles, N, line, false, tails);
+		return board.manhattan() + 2 * sum;
+	}
+
+	public Tracker tracker(final int[] tiles, final int N) {
+		final Tracker manhattan = MANHATTAN.tracker(tiles, N);
+		final int[] tails = new int[N];
+		final int[] rows = new int[N];			// conflicts of every row
+		final int[] columns = new int[N];		// conflicts of every column
+		int sum = 0;
+		for (int line = 0; line < N; line++) {
+			sum += rows[line] = conflicts(tiles, N, line, true, tails);
+			sum += columns[line] = conflicts(tiles, N, line, false, tails);
+		}
+		final int initial = sum;
+
+		return new Tracker() {
+			private int total = initial;		// conflicts of all the lines
+
+			public int value() {
+				return manhattan.value() + 2 * total;
+			}
+
+			public void moved(int from, int to) {
+				manhattan.moved(from, to);
+				if (from / N == to / N)
+					total += update(columns, from % N, false) + update(columns, to % N, false);
+				else
+					total += update(rows, from / N, true) + update(rows, to / N, true);
+			}
+
+			private int update(int[] lines, int line, boolean isRow) {
+				int count = conflicts(tiles, N, line, isRow, tails);
+				int delta = count - lines[line];
+				lines[line] = count;
+				return delta;
+			}
+		};
+	}
+
+	public String toString() {
+		return "linear";
+	}
+}
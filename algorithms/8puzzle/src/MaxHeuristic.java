@@ -0,0 +1,56 @@
+/**
+ * MaxHeuristic.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Board.java Heuristic.java
+ *
+ * Largest estimate of several admissible heuristics, itself admissible and at
+ * least as good as each of them, for the price of evaluating them all. Its
+ * tracker forwards every move to one tracker per heuristic.
+ *
+ */
+public class MaxHeuristic implements Heuristic {
+	private final Heuristic[] parts;	// heuristics combined
+
+	/**
+	 * @param parts at least one heuristic
+	 */
+	public MaxHeuristic(Heuristic... parts) {
+		if (parts.length == 0)
+			throw new IllegalArgumentException("No heuristic to combine");
+		this.parts = parts.clone();
+	}
+
+	public int estimate(Board board) {
+		int max = 0;
+		for (Heuristic part : parts)
+			max = Math.max(max, part.estimate(board));
+		return max;
+	}
+
+	public Tracker tracker(int[] tiles, int N) {
+		final Tracker[] trackers = new Tracker[parts.length];
+		for (int i = 0; i < parts.length; i++)
+			trackers[i] = parts[i].tracker(tiles, N);
+		return new Tracker() {
+			public int value() {
+				int max = 0;
+				for (Tracker tracker : trackers)
+					max = Math.max(max, tracker.value());
+				return max;
+			}
+
+			public void moved(int from, int to) {
+				for (Tracker tracker : trackers)
+					tracker.moved(from, to);
+			}
+		};
+	}
+
+	public String toString() {
+		StringBuilder s = new StringBuilder("max(");
+		for (int i = 0; i < parts.length; i++)
+			s.append(i == 0 ? "" : ",").append(parts[i]);
+		return s.append(")").toString();
+	}
+}
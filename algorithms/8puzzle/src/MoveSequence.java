@@ -0,0 +1,116 @@
+/**
+ * MoveSequence.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Board.java
+ *
+ * A solution stored as its initial board and the directions the blank moves,
+ * 2 bits per move, four moves per byte: a 50-move solution takes 13 bytes
+ * instead of 51 boards. Iterating replays the moves from the initial board,
+ * building the boards lazily, one at a time.
+ *
+ */
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+public class MoveSequence implements Iterable<Board> {
+	private static final char[] NAMES = { 'R', 'L', 'D', 'U' };	// by direction
+
+	private final Board initial;	// first board
+	private final byte[] packed;	// move k in bits 2(k % 4).. of byte k / 4
+	private final int length;		// number of moves
+
+	/**
+	 * @param initial
+	 * @param directions Board.RIGHT, LEFT, DOWN or UP, one per move
+	 * @param length number of moves, taken from the start of directions
+	 */
+	public MoveSequence(Board initial, int[] directions, int length) {
+		this.initial = initial;
+		this.length = length;
+		this.packed = new byte[(length + 3) / 4];
+		for (int k = 0; k < length; k++)
+			packed[k >> 2] |= (directions[k] & 3) << (2 * (k & 3));
+	}
+
+	/**
+	 * @param initial
+	 * @param packed moves as returned by toByteArray()
+	 * @param length number of moves
+	 */
+	public MoveSequence(Board initial, byte[] packed, int length) {
+		if (packed.length < (length + 3) / 4)
+			throw new IllegalArgumentException("too few bytes for " + length + " moves");
+		this.initial = initial;
+		this.length = length;
+		this.packed = Arrays.copyOf(packed, (length + 3) / 4);
+	}
+
+	/**
+	 * number of moves
+	 * @return
+	 */
+	public int length() {
+		return length;
+	}
+
+	/**
+	 * @param k
+	 * @return direction of the k-th move, from 0
+	 */
+	public int move(int k) {
+		if (k < 0 || k >= length)
+			throw new IndexOutOfBoundsException("move " + k);
+		return packed[k >> 2] >> (2 * (k & 3)) & 3;
+	}
+
+	/**
+	 * moves packed 2 bits each, four per byte
+	 * @return a copy
+	 */
+	public byte[] toByteArray() {
+		return packed.clone();
+	}
+
+	/**
+	 * the initial board then the board after every move
+	 */
+	@Override
+	public Iterator<Board> iterator() {
+		return new Iterator<Board>() {
+			private Board board;	// last board returned
+			private int next;		// moves made so far + 1, 0 before the start
+
+			@Override
+			public boolean hasNext() {
+				return next <= length;
+			}
+
+			@Override
+			public Board next() {
+				if (!hasNext())
+					throw new NoSuchElementException();
+				board = next == 0 ? initial : board.move(move(next - 1));
+				next++;
+				return board;
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * moves as letters R, L, D and U, the way the blank goes
+	 */
+	@Override
+	public String toString() {
+		StringBuilder s = new StringBuilder(length);
+		for (int k = 0; k < length; k++)
+			s.append(NAMES[move(k)]);
+		return s.toString();
+	}
+}
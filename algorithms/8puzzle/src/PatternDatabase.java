@@ -0,0 +1,475 @@
+/**
+ * PatternDatabase.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Dependencies: stdlib.jar algs4.jar Board.java Heuristic.java
+ *
+ * Disjoint additive pattern database heuristic. The blocks are split into
+ * disjoint patterns (for instance 6-6-3 for the 15-puzzle); for each pattern
+ * a table holds, for every placement of its blocks, the fewest moves of those
+ * blocks that bring them home. The search that builds it follows the blank
+ * too, since a block can only slide into the blank: its states are a
+ * placement and a blank cell, a blank move onto a cell outside the pattern
+ * costs 0 and a move of a pattern block costs 1. Only moves of the pattern's
+ * blocks are charged, so the values of disjoint patterns still add up to a
+ * lower bound, one that also counts the blank moves around the pattern's
+ * blocks. The table keeps the minimum over the blank cells of a placement.
+ * A placement of k blocks on M = N * N cells is ranked into [0, M!/(M-k)!)
+ * and its distance is stored in one byte; a state appends the blank to the
+ * placement, ranked as its (k+1)-th position, so the states of a placement
+ * are M - k consecutive ranks. The states are searched by a 0-1 breadth-first
+ * search backwards from the goal, one distance at a time: every level first
+ * spreads its distance to the blank cells reachable for free, then expands
+ * the block moves, each in a parallel sweep of the states on a fork-join pool.
+ * The tables are written to one packed little-endian file: the magic "PDB1",
+ * int N, int number of patterns, for each pattern int k and its k blocks, then
+ * the tables one after the other. load() memory-maps that file, so start-up
+ * takes no time and solver processes share the pages.
+ *
+ */
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class PatternDatabase implements Heuristic {
+	private static final int MAGIC = 0x31424450;	// "PDB1" read as a little-endian int
+	private static final int UNSEEN = 0xFF;			// table value of a placement not reached yet
+	private static final int SWEEP_GRAIN = 1 << 12;	// placements swept by one task
+
+	private final int N;				// board size
+	private final int[][] patterns;		// blocks of every pattern
+	private final MappedByteBuffer[] tables;	// distance of every placement, one table per pattern
+	private final ThreadLocal<int[]> wheres = new ThreadLocal<int[]>();	// cell of every block
+
+	private PatternDatabase(int N, int[][] patterns, MappedByteBuffer[] tables) {
+		this.N = N;
+		this.patterns = patterns;
+		this.tables = tables;
+	}
+
+	/**
+	 * The usual disjoint partition of the blocks of an N-by-N board: 4-4 for
+	 * the 8-puzzle, 6-6-3 for the 15-puzzle, 5-5-5-5-4 for the 24-puzzle, whose
+	 * 6-block patterns would take 2.4G states with the blank
+	 * @param N
+	 * @return
+	 */
+	public static int[][] defaultPatterns(int N) {
+		if (N == 3)
+			return new int[][] { { 1, 2, 3, 4 }, { 5, 6, 7, 8 } };
+		if (N == 4)
+			return new int[][] { { 1, 5, 6, 9, 10, 13 }, { 7, 8, 11, 12, 14, 15 }, { 2, 3, 4 } };
+		if (N == 5)
+			return new int[][] { { 1, 2, 3, 6, 7 }, { 4, 5, 8, 9, 10 }, { 11, 12, 16, 17, 21 },
+					{ 13, 14, 15, 18, 19 }, { 20, 22, 23, 24 } };
+		throw new IllegalArgumentException("No default patterns for N = " + N);
+	}
+
+	/**
+	 * number of placements of k blocks on cells cells
+	 */
+	private static long placements(int cells, int k) {
+		long count = 1;
+		for (int i = 0; i < k; i++)
+			count *= cells - i;
+		return count;
+	}
+
+	/**
+	 * Rank of a placement: position i is replaced by the number of free cells
+	 * before it, which gives a mixed-radix number with digits < cells - i
+	 * @param positions cell of every block of the pattern
+	 * @param k number of blocks
+	 * @param cells N * N
+	 * @return
+	 */
+	private static int rank(int[] positions, int k, int cells) {
+		int rank = 0;
+		for (int i = 0; i < k; i++) {
+			int digit = positions[i];
+			for (int j = 0; j < i; j++)
+				if (positions[j] < positions[i])
+					digit--;
+			rank = rank * (cells - i) + digit;
+		}
+		return rank;
+	}
+
+	/**
+	 * rank() of a pattern's placement read from where[block] = cell
+	 */
+	private static int rank(int[] pattern, int[] where, int cells) {
+		int rank = 0;
+		for (int i = 0; i < pattern.length; i++) {
+			int position = where[pattern[i]], digit = position;
+			for (int j = 0; j < i; j++)
+				if (where[pattern[j]] < position)
+					digit--;
+			rank = rank * (cells - i) + digit;
+		}
+		return rank;
+	}
+
+	/**
+	 * Inverse of rank()
+	 */
+	private static void unrank(int rank, int k, int cells, int[] positions, boolean[] taken) {
+		for (int i = k - 1; i >= 0; i--) {
+			positions[i] = rank % (cells - i);
+			rank /= cells - i;
+		}
+		Arrays.fill(taken, false);
+		for (int i = 0; i < k; i++) {
+			int digit = positions[i], cell = 0;
+			for (;; cell++)		// the digit-th free cell
+				if (!taken[cell] && digit-- == 0)
+					break;
+			positions[i] = cell;
+			taken[cell] = true;
+		}
+	}
+
+	/**
+	 * Builds the table of one pattern by a 0-1 breadth-first search over the
+	 * placements and blank cells
+	 * @param N board size
+	 * @param pattern blocks of the pattern
+	 * @param pool pool sweeping the levels
+	 * @return distance of every placement
+	 */
+	public static byte[] buildTable(int N, int[] pattern, ForkJoinPool pool) {
+		int cells = N * N, k = pattern.length, blanks = cells - k;
+		long size = placements(cells, k);
+		if (size * blanks > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Pattern too large: " + size * blanks + " states");
+		byte[] states = new byte[(int) size * blanks];
+		Arrays.fill(states, (byte) UNSEEN);
+
+		int[] goal = new int[k + 1];
+		for (int i = 0; i < k; i++)
+			goal[i] = pattern[i] - 1;
+		goal[k] = cells - 1;
+		states[rank(goal, k + 1, cells)] = 0;
+		for (int level = 0;; level++) {
+			if (level + 1 >= UNSEEN)
+				throw new IllegalStateException("Distances do not fit a byte");
+			pool.invoke(new Sweep(states, N, k, level, false, 0, (int) size));
+			long reached = pool.invoke(new Sweep(states, N, k, level, true, 0, (int) size));
+			if (reached == 0)
+				break;
+		}
+
+		byte[] table = new byte[(int) size];
+		for (int p = 0, s = 0; p < table.length; p++) {
+			int min = UNSEEN;
+			for (int b = 0; b < blanks; b++, s++)
+				min = Math.min(min, states[s] & 0xFF);
+			table[p] = (byte) (min == UNSEEN ? 0 : min);
+		}
+		return table;
+	}
+
+	/**
+	 * One pass of a level over the states of the placements in [lo..hi): the
+	 * closing pass gives distance level to every blank cell connected to a
+	 * cell at level without crossing a block of the pattern, the expanding
+	 * pass then slides the blocks next to the blank of every state at level
+	 * into it, reaching states at level + 1
+	 */
+	private static class Sweep extends RecursiveTask<Long> {
+		private static final long serialVersionUID = 1L;
+		private final byte[] states;
+		private final int N, k, level, lo, hi;
+		private final boolean expand;
+
+		Sweep(byte[] states, int N, int k, int level, boolean expand, int lo, int hi) {
+			this.states = states;
+			this.N = N;
+			this.k = k;
+			this.level = level;
+			this.expand = expand;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		@Override
+		protected Long compute() {
+			if (hi - lo > SWEEP_GRAIN) {
+				int mid = (lo + hi) >>> 1;
+				Sweep right = new Sweep(states, N, k, level, expand, mid, hi);
+				right.fork();
+				long left = new Sweep(states, N, k, level, expand, lo, mid).compute();
+				return left + right.join();
+			}
+			int cells = N * N, blanks = cells - k;
+			int[] positions = new int[k + 1];
+			boolean[] taken = new boolean[cells];
+			int[] free = new int[blanks];		// cell of every blank rank
+			int[] stack = new int[blanks];		// blank cells left to close
+			byte next = (byte) (level + 1);
+			long reached = 0;
+			for (int p = lo; p < hi; p++) {
+				int base = p * blanks, b = 0;
+				while (b < blanks && (states[base + b] & 0xFF) != level)
+					b++;
+				if (b == blanks)
+					continue;
+				unrank(p, k, cells, positions, taken);
+				for (int cell = 0, f = 0; cell < cells; cell++)
+					if (!taken[cell])
+						free[f++] = cell;
+
+				for (; b < blanks; b++) {
+					if ((states[base + b] & 0xFF) != level)
+						continue;
+					if (!expand) {
+						// only this task writes the states of p in a closing pass
+						int top = 0;
+						stack[top++] = free[b];
+						while (top > 0) {
+							int blank = stack[--top];
+							for (int d = 0; d < 4; d++) {
+								int to = neighbor(blank, d);
+								if (to < 0 || taken[to])
+									continue;
+								int s = base + Arrays.binarySearch(free, to);
+								if ((states[s] & 0xFF) == UNSEEN) {
+									states[s] = (byte) level;
+									stack[top++] = to;
+								}
+							}
+						}
+						continue;
+					}
+					int blank = free[b];
+					positions[k] = blank;
+					for (int d = 0; d < 4; d++) {
+						int from = neighbor(blank, d);
+						if (from < 0 || !taken[from])
+							continue;
+						int i = 0;
+						while (positions[i] != from)
+							i++;
+						positions[i] = blank;
+						positions[k] = from;
+						int child = rank(positions, k + 1, cells);
+						positions[i] = from;
+						positions[k] = blank;
+						// racing sweeps may both write next: same value, no harm
+						if ((states[child] & 0xFF) == UNSEEN) {
+							states[child] = next;
+							reached++;
+						}
+					}
+				}
+			}
+			return reached;
+		}
+
+		/**
+		 * @return cell next to cell in direction d, -1 off the board
+		 */
+		private int neighbor(int cell, int d) {
+			int row = cell / N, col = cell % N;
+			if (d == 0)
+				return col < N - 1 ? cell + 1 : -1;
+			if (d == 1)
+				return col > 0 ? cell - 1 : -1;
+			if (d == 2)
+				return row < N - 1 ? cell + N : -1;
+			return row > 0 ? cell - N : -1;
+		}
+	}
+
+	/**
+	 * Builds the tables of every pattern and writes them to out
+	 * @param N board size
+	 * @param patterns disjoint sets of blocks
+	 * @param pool pool sweeping the levels
+	 * @param out
+	 * @throws IOException
+	 */
+	public static void generate(int N, int[][] patterns, ForkJoinPool pool, OutputStream out)
+			throws IOException {
+		boolean[] used = new boolean[N * N];
+		for (int[] pattern : patterns)
+			for (int tile : pattern) {
+				if (tile < 1 || tile >= N * N || used[tile])
+					throw new IllegalArgumentException("Patterns must be disjoint sets of blocks");
+				used[tile] = true;
+			}
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(Integer.reverseBytes(MAGIC));
+		data.writeInt(Integer.reverseBytes(N));
+		data.writeInt(Integer.reverseBytes(patterns.length));
+		for (int[] pattern : patterns) {
+			data.writeInt(Integer.reverseBytes(pattern.length));
+			for (int tile : pattern)
+				data.writeInt(Integer.reverseBytes(tile));
+		}
+		for (int[] pattern : patterns)
+			data.write(buildTable(N, pattern, pool));
+		data.flush();
+	}
+
+	/**
+	 * Maps a file written by generate()
+	 * @param path
+	 * @return
+	 */
+	public static PatternDatabase load(String path) {
+		try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+			MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+					Math.min(channel.size(), 1 << 16));
+			header.order(ByteOrder.LITTLE_ENDIAN);
+			if (header.remaining() < 12 || header.getInt() != MAGIC)
+				throw new InputMismatchException("Not a pattern database: " + path);
+			int N = header.getInt();
+			int[][] patterns = new int[header.getInt()][];
+			for (int p = 0; p < patterns.length; p++) {
+				patterns[p] = new int[header.getInt()];
+				for (int s = 0; s < patterns[p].length; s++)
+					patterns[p][s] = header.getInt();
+			}
+
+			long offset = header.position();
+			MappedByteBuffer[] tables = new MappedByteBuffer[patterns.length];
+			for (int p = 0; p < patterns.length; p++) {
+				long size = placements(N * N, patterns[p].length);
+				if (offset + size > channel.size())
+					throw new InputMismatchException("Truncated pattern database: " + path);
+				tables[p] = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+				offset += size;
+			}
+			return new PatternDatabase(N, patterns, tables);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * board dimension of the database
+	 * @return
+	 */
+	public int dimension() {
+		return N;
+	}
+
+	/**
+	 * Sum over the patterns of the moves their blocks need
+	 * @param board a board of the database's dimension
+	 * @return
+	 */
+	public int estimate(Board board) {
+		if (board.dimension() != N)
+			throw new IllegalArgumentException("Database is for " + N + "x" + N + " boards");
+		int cells = N * N;
+		int[] where = wheres.get();
+		if (where == null) {
+			where = new int[cells];
+			wheres.set(where);
+		}
+		for (int i = 0; i < cells; i++)
+			where[board.tile(i)] = i;
+		return estimate(where);
+	}
+
+	/**
+	 * estimate() of the board whose block b is on cell where[b]
+	 * @param where cell of every block, where[0] being ignored
+	 * @return
+	 */
+	public int estimate(int[] where) {
+		int sum = 0;
+		for (int p = 0; p < patterns.length; p++)
+			sum += tables[p].get(rank(patterns[p], where, N * N)) & 0xFF;
+		return sum;
+	}
+
+	/**
+	 * Tracker that looks up again only the pattern of the moved block
+	 */
+	public Tracker tracker(final int[] tiles, int N) {
+		if (N != this.N)
+			throw new IllegalArgumentException("Database is for " + this.N + "x" + this.N + " boards");
+		final int cells = N * N;
+		final int[] where = new int[cells];
+		for (int i = 0; i < cells; i++)
+			where[tiles[i]] = i;
+		final int[] patternOf = new int[cells];		// pattern of every block, -1 if none
+		Arrays.fill(patternOf, -1);
+		for (int p = 0; p < patterns.length; p++)
+			for (int tile : patterns[p])
+				patternOf[tile] = p;
+		final int[] parts = new int[patterns.length];	// table value of every pattern
+		int sum = 0;
+		for (int p = 0; p < patterns.length; p++)
+			sum += parts[p] = tables[p].get(rank(patterns[p], where, cells)) & 0xFF;
+		final int initial = sum;
+
+		return new Tracker() {
+			private int value = initial;
+
+			public int value() {
+				return value;
+			}
+
+			public void moved(int from, int to) {
+				int tile = tiles[to];
+				where[tile] = to;
+				int p = patternOf[tile];
+				if (p < 0)
+					return;
+				int part = tables[p].get(rank(patterns[p], where, cells)) & 0xFF;
+				value += part - parts[p];
+				parts[p] = part;
+			}
+		};
+	}
+
+	public String toString() {
+		StringBuilder s = new StringBuilder("pdb");
+		for (int[] pattern : patterns)
+			s.append(pattern == patterns[0] ? " " : "-").append(pattern.length);
+		return s.toString();
+	}
+
+	/**
+	 * Generates a database file
+	 * @param args N, output file and optional patterns such as
+	 *             "1,5,6,9,10,13/7,8,11,12,14,15/2,3,4", the default ones otherwise
+	 */
+	public static void main(String[] args) throws IOException {
+		int N = Integer.parseInt(args[0]);
+		int[][] patterns = defaultPatterns(N);
+		if (args.length > 2) {
+			String[] groups = args[2].split("/");
+			patterns = new int[groups.length][];
+			for (int p = 0; p < groups.length; p++) {
+				String[] tiles = groups[p].split(",");
+				patterns[p] = new int[tiles.length];
+				for (int s = 0; s < tiles.length; s++)
+					patterns[p][s] = Integer.parseInt(tiles[s].trim());
+			}
+		}
+		long start = System.nanoTime();
+		try (OutputStream out = new BufferedOutputStream(
+				Files.newOutputStream(Paths.get(args[1])), 1 << 16)) {
+			generate(N, patterns, ForkJoinPool.commonPool(), out);
+		}
+		StdOut.printf("%s written in %.1f s%n", args[1], (System.nanoTime() - start) / 1e9);
+	}
+}
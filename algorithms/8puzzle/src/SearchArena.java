@@ -0,0 +1,211 @@
+/**
+ * SearchArena.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Board.java BoardTable.java
+ *
+ * Storage of an A* search in primitive arrays, with no object per node.
+ * A node is an index into parallel arrays: its board's compact code
+ * (Board.encode(), codeLength(N) longs), its number of moves g and its
+ * parent's index. The frontier is a bucket queue: priorities are small
+ * integers, so bucket f is a stack of the nodes of priority f, insert and
+ * delete-min are O(1) and, within a bucket, the most recently generated node
+ * (usually the deepest) comes out first. A BoardTable maps every board to
+ * its node with the fewest moves, so find() looks a board up by its code.
+ * An arena is reset() and reused from one search to the next, keeping its
+ * capacity: one arena per thread solves any number of boards without
+ * reallocating.
+ *
+ */
+import java.util.Arrays;
+
+public class SearchArena {
+	private int N;					// board size of the current search
+	private int width;				// longs per board code
+
+	private long[] codes = new long[64];	// width longs per node
+	private int[] costs = new int[64];		// moves to reach every node
+	private int[] parents = new int[64];	// parent of every node, -1 for the root
+	private int count;						// number of nodes
+
+	private int[][] buckets = new int[64][];	// node stacks indexed by priority
+	private int[] bucketSizes = new int[64];	// size of every stack
+	private int minBucket;					// no node has a smaller priority
+	private int queued;						// nodes in all the stacks
+
+	private BoardTable closed;				// node with the fewest moves to every board
+
+	/**
+	 * Empties the arena for a search of N-by-N boards
+	 * @param N
+	 */
+	public void reset(int N) {
+		if (closed == null || closed.dimension() != N)
+			closed = new BoardTable(N, 1024);
+		else
+			closed.clear();
+		this.N = N;
+		this.width = Board.codeLength(N);
+		count = 0;
+		Arrays.fill(bucketSizes, 0);
+		minBucket = 0;
+		queued = 0;
+	}
+
+	/**
+	 * number of nodes stored
+	 * @return
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * number of nodes in the frontier
+	 * @return
+	 */
+	public int queued() {
+		return queued;
+	}
+
+	/**
+	 * Stores a node for board unless the board was already reached in g moves
+	 * or fewer
+	 * @param board
+	 * @param g moves to reach board
+	 * @param parent index of the parent node, -1 for the root
+	 * @return index of the new node, -1 if board is a duplicate
+	 */
+	public int add(Board board, int g, int parent) {
+		grow();
+		board.encode(codes, count * width);
+		return store(g, parent);
+	}
+
+	/**
+	 * add() for an encoded board
+	 * @param code
+	 * @param offset first long of the encoding
+	 * @param g moves to reach the board
+	 * @param parent index of the parent node, -1 for the root
+	 * @return index of the new node, -1 if the board is a duplicate
+	 */
+	public int add(long[] code, int offset, int g, int parent) {
+		grow();
+		System.arraycopy(code, offset, codes, count * width, width);
+		return store(g, parent);
+	}
+
+	/**
+	 * Makes room for one more node
+	 */
+	private void grow() {
+		if (count == costs.length) {
+			costs = Arrays.copyOf(costs, 2 * count);
+			parents = Arrays.copyOf(parents, 2 * count);
+		}
+		if (codes.length < costs.length * width)
+			codes = Arrays.copyOf(codes, costs.length * width);
+	}
+
+	/**
+	 * Stores the node whose code was copied at the end of codes, unless its
+	 * board already has a node with g moves or fewer
+	 */
+	private int store(int g, int parent) {
+		int best = closed.get(codes, count * width, -1);
+		if (best >= 0 && costs[best] <= g)
+			return -1;
+		closed.put(codes, count * width, count);
+		costs[count] = g;
+		parents[count] = parent;
+		return count++;
+	}
+
+	/**
+	 * @param board
+	 * @return the node with the fewest moves to board, -1 if board was never
+	 *         reached
+	 */
+	public int find(Board board) {
+		return closed.get(board, -1);
+	}
+
+	/**
+	 * @param node
+	 * @return the board of node
+	 */
+	public Board board(int node) {
+		return Board.decode(N, codes, node * width);
+	}
+
+	/**
+	 * @param node
+	 * @return moves to reach node
+	 */
+	public int cost(int node) {
+		return costs[node];
+	}
+
+	/**
+	 * @param node
+	 * @return parent of node, -1 for the root
+	 */
+	public int parent(int node) {
+		return parents[node];
+	}
+
+	/**
+	 * Was a shorter path to node's board found after node was stored?
+	 * @param node
+	 * @return
+	 */
+	public boolean isStale(int node) {
+		return closed.get(codes, node * width, node) != node;
+	}
+
+	/**
+	 * Adds node to the frontier
+	 * @param node
+	 * @param priority moves + heuristic of node, not negative
+	 */
+	public void push(int node, int priority) {
+		if (priority >= buckets.length) {
+			int capacity = Math.max(priority + 1, 2 * buckets.length);
+			buckets = Arrays.copyOf(buckets, capacity);
+			bucketSizes = Arrays.copyOf(bucketSizes, capacity);
+		}
+		int[] bucket = buckets[priority];
+		if (bucket == null)
+			bucket = buckets[priority] = new int[16];
+		else if (bucketSizes[priority] == bucket.length)
+			bucket = buckets[priority] = Arrays.copyOf(bucket, 2 * bucket.length);
+		bucket[bucketSizes[priority]++] = node;
+		if (priority < minBucket)
+			minBucket = priority;
+		queued++;
+	}
+
+	/**
+	 * smallest priority in the frontier, stale nodes included
+	 * @return the priority, -1 if the frontier is empty
+	 */
+	public int minPriority() {
+		if (queued == 0)
+			return -1;
+		while (bucketSizes[minBucket] == 0)
+			minBucket++;
+		return minBucket;
+	}
+
+	/**
+	 * Removes a node of smallest priority from the frontier
+	 * @return the node, -1 if the frontier is empty
+	 */
+	public int pop() {
+		if (minPriority() < 0)
+			return -1;
+		queued--;
+		return buckets[minBucket][--bucketSizes[minBucket]];
+	}
+}
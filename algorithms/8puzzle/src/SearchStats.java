@@ -0,0 +1,222 @@
+/**
+ * SearchStats.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: SearchStatsMBean.java
+ *
+ * Telemetry of one A* search: boards expanded, children generated,
+ * duplicates pruned (children already reached in as few moves), stale nodes
+ * skipped (dequeued after a shorter path to their board was found), current
+ * and peak frontier size, expansions per second, and a histogram of the
+ * heuristic values of the nodes queued. A solver given no SearchStats pays
+ * one null test per event; the counters are plain fields written by the
+ * search thread only.
+ * Optionally, a progress line goes to a stream every interval of time, and
+ * the counters can be registered as a JMX MBean; both let a long solve be
+ * watched, and the heap it uses be seen, before it runs out of memory.
+ *
+ */
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+public class SearchStats implements SearchStatsMBean {
+	private static final int CHECK_MASK = (1 << 12) - 1;	// clock read every 4096 expansions
+
+	private final PrintStream progress;		// progress lines, null for none
+	private final long interval;			// nanoseconds between progress lines
+	private long nextReport;				// time of the next progress line
+	private ObjectName registered;			// JMX name, null if not registered
+
+	private long start;						// System.nanoTime() at started()
+	private long end;						// at finished(), 0 while running
+	private long expanded;					// boards expanded
+	private long generated;					// children generated
+	private long duplicates;				// children already reached as cheaply
+	private long stale;						// dequeued nodes superseded
+	private int frontier;					// queued nodes
+	private int peakFrontier;				// largest frontier
+	private long[] histogram = new long[64];	// queued nodes by heuristic value
+
+	/**
+	 * Counters only, no progress lines
+	 */
+	public SearchStats() {
+		this(null, 0);
+	}
+
+	/**
+	 * @param progress stream of the progress lines
+	 * @param intervalMillis milliseconds between two progress lines
+	 */
+	public SearchStats(PrintStream progress, long intervalMillis) {
+		this.progress = progress;
+		this.interval = intervalMillis * 1000000L;
+	}
+
+	/**
+	 * Registers these counters in the platform MBean server
+	 * @param name value of the name key, as in "8puzzle:type=SearchStats,name=..."
+	 */
+	public void register(String name) {
+		try {
+			registered = new ObjectName("8puzzle:type=SearchStats,name=" + ObjectName.quote(name));
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, registered);
+		} catch (JMException e) {
+			throw new IllegalStateException("Cannot register " + name, e);
+		}
+	}
+
+	/**
+	 * Removes the registration of register(), if any
+	 */
+	public void unregister() {
+		if (registered == null)
+			return;
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(registered);
+		} catch (JMException e) {
+			throw new IllegalStateException("Cannot unregister " + registered, e);
+		}
+		registered = null;
+	}
+
+	/**
+	 * The search begins
+	 */
+	public void started() {
+		start = System.nanoTime();
+		nextReport = start + interval;
+	}
+
+	/**
+	 * The search is over
+	 */
+	public void finished() {
+		end = System.nanoTime();
+	}
+
+	/**
+	 * A board was expanded
+	 */
+	public void expanded() {
+		if ((++expanded & CHECK_MASK) == 0 && progress != null) {
+			long now = System.nanoTime();
+			if (now >= nextReport) {
+				nextReport = now + interval;
+				progress.println(progressLine(now));
+			}
+		}
+	}
+
+	/**
+	 * @param children number of children of the board expanded
+	 */
+	public void generated(int children) {
+		generated += children;
+	}
+
+	/**
+	 * A child was already reached in as few moves
+	 */
+	public void duplicate() {
+		duplicates++;
+	}
+
+	/**
+	 * A dequeued node was superseded by a shorter path
+	 */
+	public void stale() {
+		stale++;
+		frontier--;
+	}
+
+	/**
+	 * A node was queued
+	 * @param h its heuristic value
+	 */
+	public void queued(int h) {
+		if (h >= histogram.length)
+			histogram = Arrays.copyOf(histogram, Math.max(h + 1, 2 * histogram.length));
+		histogram[h]++;
+		if (++frontier > peakFrontier)
+			peakFrontier = frontier;
+	}
+
+	/**
+	 * A node was dequeued to be expanded
+	 */
+	public void dequeued() {
+		frontier--;
+	}
+
+	public long getExpanded() {
+		return expanded;
+	}
+
+	public long getGenerated() {
+		return generated;
+	}
+
+	public long getDuplicates() {
+		return duplicates;
+	}
+
+	public long getStale() {
+		return stale;
+	}
+
+	public int getFrontier() {
+		return frontier;
+	}
+
+	public int getPeakFrontier() {
+		return peakFrontier;
+	}
+
+	public long getElapsedMillis() {
+		return ((end == 0 ? System.nanoTime() : end) - start) / 1000000L;
+	}
+
+	public double getExpansionsPerSecond() {
+		long nanos = (end == 0 ? System.nanoTime() : end) - start;
+		return nanos == 0 ? 0 : expanded * 1e9 / nanos;
+	}
+
+	/**
+	 * queued nodes by heuristic value, up to the largest value seen
+	 */
+	public long[] getHistogram() {
+		int length = histogram.length;
+		while (length > 0 && histogram[length - 1] == 0)
+			length--;
+		return Arrays.copyOf(histogram, length);
+	}
+
+	private String progressLine(long now) {
+		Runtime runtime = Runtime.getRuntime();
+		return String.format("%.1f s: %d expanded, %d generated, %d duplicates, frontier %d "
+				+ "(peak %d), %.0f expansions/s, heap %d MB", (now - start) / 1e9, expanded,
+				generated, duplicates, frontier, peakFrontier, expanded * 1e9 / (now - start),
+				(runtime.totalMemory() - runtime.freeMemory()) >> 20);
+	}
+
+	/**
+	 * Summary of the search, histogram included
+	 */
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		s.append(String.format("expanded %d, generated %d, duplicates %d, stale %d%n", expanded,
+				generated, duplicates, stale));
+		s.append(String.format("frontier %d, peak %d, %d ms, %.0f expansions/s%n", frontier,
+				peakFrontier, getElapsedMillis(), getExpansionsPerSecond()));
+		s.append("h histogram:");
+		long[] counts = getHistogram();
+		for (int h = 0; h < counts.length; h++)
+			if (counts[h] > 0)
+				s.append(' ').append(h).append('=').append(counts[h]);
+		return s.toString();
+	}
+}
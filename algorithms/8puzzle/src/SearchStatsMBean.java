@@ -0,0 +1,29 @@
+/**
+ * SearchStatsMBean.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: none
+ *
+ * JMX view of a SearchStats, for watching a long solve from jconsole or any
+ * JMX client. Values are read while the search runs, so they may lag it.
+ *
+ */
+public interface SearchStatsMBean {
+	long getExpanded();
+
+	long getGenerated();
+
+	long getDuplicates();
+
+	long getStale();
+
+	int getFrontier();
+
+	int getPeakFrontier();
+
+	long getElapsedMillis();
+
+	double getExpansionsPerSecond();
+
+	long[] getHistogram();
+}
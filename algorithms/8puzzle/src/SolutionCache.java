@@ -0,0 +1,169 @@
+/**
+ * SolutionCache.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Board.java
+ *
+ * Least-recently-used cache of solved boards, keyed by their compact code
+ * (Board.encode()). Every suffix of a shortest solution is itself a shortest
+ * solution, so put() caches every board on the path, not only the initial
+ * one: a later board already met along the way is answered without search.
+ * The entries of a path share one Board[] holding it.
+ * All methods are synchronized; hits and misses of get() are counted.
+ *
+ */
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SolutionCache {
+	private final int capacity;					// most entries kept
+	private final LinkedHashMap<Key, Solution> map;	// in access order
+	private long hits;							// get() calls answered
+	private long misses;						// get() calls not answered
+
+	/**
+	 * A cached result: a shortest path from one of its boards to the goal,
+	 * or no path for an unsolvable board
+	 */
+	public static final class Solution {
+		private final Board[] path;		// shared path, null if unsolvable
+		private final int from;			// index of the board solved in path
+
+		private Solution(Board[] path, int from) {
+			this.path = path;
+			this.from = from;
+		}
+
+		/**
+		 * is the board solvable?
+		 * @return
+		 */
+		public boolean isSolvable() {
+			return path != null;
+		}
+
+		/**
+		 * min number of moves to solve the board; -1 if no solution
+		 * @return
+		 */
+		public int moves() {
+			return path == null ? -1 : path.length - 1 - from;
+		}
+
+		/**
+		 * sequence of boards in a shortest solution; null if no solution
+		 * @return
+		 */
+		public Iterable<Board> solution() {
+			if (path == null)
+				return null;
+			return Arrays.asList(path).subList(from, path.length);
+		}
+	}
+
+	/**
+	 * Board code with its hash
+	 */
+	private static final class Key {
+		private final long[] code;
+		private final int hash;
+
+		Key(Board board) {
+			code = new long[Board.codeLength(board.dimension())];
+			board.encode(code, 0);
+			hash = board.dimension() * 31 + Arrays.hashCode(code);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key))
+				return false;
+			Key that = (Key) o;
+			return hash == that.hash && Arrays.equals(code, that.code);
+		}
+	}
+
+	/**
+	 * @param capacity most boards kept, 0 disables the cache
+	 */
+	public SolutionCache(int capacity) {
+		this.capacity = capacity;
+		this.map = new LinkedHashMap<Key, Solution>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Solution> eldest) {
+				return size() > SolutionCache.this.capacity;
+			}
+		};
+	}
+
+	/**
+	 * @param board
+	 * @return the cached solution of board, null if board is not cached
+	 */
+	public synchronized Solution get(Board board) {
+		Solution solution = capacity == 0 ? null : map.get(new Key(board));
+		if (solution == null)
+			misses++;
+		else
+			hits++;
+		return solution;
+	}
+
+	/**
+	 * Caches the solution of initial and of every board along it
+	 * @param initial
+	 * @param solution shortest sequence of boards from initial to the goal,
+	 *                 null if initial is unsolvable
+	 * @return the solution of initial
+	 */
+	public synchronized Solution put(Board initial, Iterable<Board> solution) {
+		if (solution == null) {
+			Solution none = new Solution(null, 0);
+			if (capacity > 0)
+				map.put(new Key(initial), none);
+			return none;
+		}
+		int length = 0;
+		for (Board board : solution)
+			length++;
+		Board[] path = new Board[length];
+		int i = 0;
+		for (Board board : solution)
+			path[i++] = board;
+		// the initial board last, so it ends up the most recently used; a path
+		// longer than the cache keeps only its capacity boards nearest it
+		for (i = Math.min(length, capacity) - 1; i >= 0; i--)
+			map.put(new Key(path[i]), new Solution(path, i));
+		return new Solution(path, 0);
+	}
+
+	/**
+	 * number of get() calls answered by the cache
+	 * @return
+	 */
+	public synchronized long hits() {
+		return hits;
+	}
+
+	/**
+	 * number of get() calls the cache could not answer
+	 * @return
+	 */
+	public synchronized long misses() {
+		return misses;
+	}
+
+	/**
+	 * number of boards cached
+	 * @return
+	 */
+	public synchronized int size() {
+		return map.size();
+	}
+}
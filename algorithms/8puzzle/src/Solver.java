@@ -2,10 +2,13 @@
  * Solver.java
  * @author George Titarenko
  * 08/08/2014
- * Dependencies: Dependencies: stdlib.jar algs4.jar Board.java
+ * Dependencies: Dependencies: stdlib.jar algs4.jar Board.java BoardTable.java
+ *               Heuristic.java PatternDatabase.java SearchArena.java
+ *               MoveSequence.java SearchStats.java
  * 
- * Solver to run an A* algorithm on NxN puzzle. Uses binary heap implementation of PriorityQueue with
- * priority calculated by Manhattan priority function.
+ * Solver to run an A* algorithm on NxN puzzle. Uses a bucket queue (SearchArena) with
+ * priority calculated by Manhattan priority function, or by any other Heuristic
+ * such as a PatternDatabase.
  * We define a search node of the game to be a board, the number of moves made to reach the board, 
  * and the previous search node. First, insert the initial search node 
  * (the initial board, 0 moves, and a null previous search node) into a priority queue. 
@@ -14,106 +17,144 @@
  * (those that can be reached in one move from the dequeued search node). 
  * Repeat this procedure until the search node dequeued corresponds to a goal board
  * 
+ * Unsolvable boards are rejected up front by Board.isSolvable(), a permutation
+ * parity check, instead of racing a search of the twin board.
+ * A transposition table (BoardTable) keeps the fewest moves found to every
+ * generated board: a neighbor is inserted only if it is new or reached along a
+ * shorter path, and a dequeued node superseded by a shorter path is not expanded.
+ * Search nodes are not objects: a SearchArena stores them as indices into
+ * primitive arrays (board code, moves, parent index), and boards are decoded
+ * only when dequeued. Among nodes of equal priority the newest is dequeued
+ * first, which favours the deepest ones like the former moves tie-break.
+ * The solution keeps only the direction of every move (MoveSequence); its
+ * boards are rebuilt by replaying the moves when solution() is iterated.
+ * A SearchStats, if given, counts expansions, duplicates and the frontier.
+ * 
  */
 public class Solver {
 
+	private final Heuristic heuristic;		// h of the priority moves + h
 	private boolean isSolvable = false;
-	private Stack<Board> historyBoards;			//solution history
+	private MoveSequence history;				//solution history, as moves
+	private long nodes;							// boards expanded
+	private final SearchStats stats;			// telemetry, null if not collected
 
 	/**
-	 * A Search Node structure
-	 *
+	 * find a solution to the initial board (using the A* algorithm with the
+	 * Manhattan priority function)
+	 * @param initial
 	 */
-	private class SearchNode implements Comparable<SearchNode> {
-		Board searchBoard;				// a NxN board
-		SearchNode previousSearchNode;  // the previous Node
-		private int movesDone;			// Moves done so far
-		private int priority;			// Priority function's cashe result
-
-		public SearchNode(Board board, int moves, SearchNode previous) {
-			this.searchBoard = board;
-			this.previousSearchNode = previous;
-			this.movesDone = moves;
-			if (previous != null)
-				this.movesDone += previous.getMovesDone();
-			this.priority = board.manhattan() + movesDone;
-		}
-
-		@Override
-		public int compareTo(SearchNode o) {
-			if (this.priority == o.priority)
-				return o.movesDone - this.movesDone;
-			if (this.priority > o.priority)
-				return 1;
-			else
-				return -1;
-		}
-
-		public Board getSearchBoard() {
-			return this.searchBoard;
-		}
+	public Solver(Board initial) 
+	{
+		this(initial, Heuristic.MANHATTAN);
+	}
 
-		public int getMovesDone() {
-			return this.movesDone;
-		}
+	/**
+	 * find a solution to the initial board (using the A* algorithm with the
+	 * given heuristic, which must never overestimate)
+	 * @param initial
+	 * @param heuristic
+	 */
+	public Solver(Board initial, Heuristic heuristic) 
+	{
+		this(initial, heuristic, new SearchArena());
+	}
 
-		public SearchNode getPreviousSearchNode() {
-			return this.previousSearchNode;
-		}
+	/**
+	 * find a solution to the initial board (using the A* algorithm with the
+	 * given heuristic), storing the search in arena, which is reset first
+	 * and can be reused once the solver is built
+	 * @param initial
+	 * @param heuristic
+	 * @param arena
+	 */
+	public Solver(Board initial, Heuristic heuristic, SearchArena arena) 
+	{
+		this(initial, heuristic, arena, null);
 	}
 
 	/**
-	 * find a solution to the initial board (using the A* algorithm). Two queues implementation
+	 * find a solution to the initial board (using the A* algorithm with the
+	 * given heuristic) in arena, counting the search in stats
 	 * @param initial
+	 * @param heuristic
+	 * @param arena
+	 * @param stats telemetry of the search, null for none
 	 */
-	public Solver(Board initial) 
+	public Solver(Board initial, Heuristic heuristic, SearchArena arena, SearchStats stats) 
 	{
-		SearchNode searchNode = new SearchNode(initial, 0, null);
-		SearchNode searchNodeTwin = new SearchNode(initial.twin(), 0, null);
-
-		MinPQ<SearchNode> puzzleQueue = new MinPQ<SearchNode>();
-		MinPQ<SearchNode> puzzleQueueTwin = new MinPQ<SearchNode>();
-		puzzleQueue.insert(searchNode);
-		puzzleQueueTwin.insert(searchNodeTwin);
-
-		while (!puzzleQueue.isEmpty() && !puzzleQueueTwin.isEmpty()) {
-			SearchNode dequeuedTwin = puzzleQueueTwin.delMin();
-			if (dequeuedTwin.getSearchBoard().isGoal()) {
-				isSolvable = false;
-				return;
-			}
+		this.heuristic = heuristic;
+		this.stats = stats;
+		if (stats != null)
+			stats.started();
+		if (!initial.isSolvable()) {
+			if (stats != null)
+				stats.finished();
+			return;		// decided by parity, no search needed
+		}
+		arena.reset(initial.dimension());
+		int root = arena.add(initial, 0, -1);
+		int h = heuristic.estimate(initial);
+		arena.push(root, h);
+		if (stats != null)
+			stats.queued(h);
+		Board[] boardNeighbors = new Board[4];	// reused for every expansion
 
-			SearchNode dequeued = puzzleQueue.delMin();
-			if (dequeued.getSearchBoard().isGoal()) {
+		for (int node = arena.pop(); node >= 0; node = arena.pop()) {
+			if (arena.isStale(node)) {
+				if (stats != null)
+					stats.stale();
+				continue;	// superseded by a shorter path to the same board
+			}
+			Board board = arena.board(node);
+			nodes++;
+			if (stats != null) {
+				stats.dequeued();
+				stats.expanded();
+			}
+			if (board.isGoal()) {
 				isSolvable = true;
-				historyBoards = new Stack<Board>();
-				historyBoards.push(dequeued.getSearchBoard());
-				while (dequeued.getPreviousSearchNode() != null) {
-					historyBoards.push(dequeued.getPreviousSearchNode().getSearchBoard());
-					dequeued = dequeued.getPreviousSearchNode();
+				int length = arena.cost(node);
+				int[] directions = new int[length];
+				Board next = board;
+				for (int p = arena.parent(node), k = length - 1; p >= 0; p = arena.parent(p), k--) {
+					Board previous = arena.board(p);
+					directions[k] = previous.directionTo(next);
+					next = previous;
 				}
-				return;
-			}
-			Iterable<Board> boardNeighbors = dequeued.getSearchBoard().neighbors();
-			for (Board b : boardNeighbors) {
-				SearchNode searchNodeNeighbor = new SearchNode(b, 1, dequeued);
-				if (dequeued.getPreviousSearchNode() != null
-						&& searchNodeNeighbor.getSearchBoard().equals(
-								dequeued.getPreviousSearchNode().getSearchBoard()))
-					continue;
-				puzzleQueue.insert(searchNodeNeighbor);
+				history = new MoveSequence(initial, directions, length);
+				break;
 			}
+			expand(node, board, arena, boardNeighbors);
+		}
+		if (stats != null)
+			stats.finished();
+	}
 
-			Iterable<Board> boardNeighborsTwin = dequeuedTwin.getSearchBoard().neighbors();
-			for (Board b : boardNeighborsTwin) {
-				SearchNode searchNodeNeighborTwin = new SearchNode(b, 1,
-						dequeuedTwin);
-				if (dequeuedTwin.getPreviousSearchNode() != null
-						&& searchNodeNeighborTwin.getSearchBoard().equals(
-								dequeuedTwin.getPreviousSearchNode().getSearchBoard()))
-					continue;
-				puzzleQueueTwin.insert(searchNodeNeighborTwin);
+	/**
+	 * Stores and queues the neighbors of a dequeued node reached for the first
+	 * time or along a shorter path
+	 * @param node
+	 * @param board the board of node
+	 * @param arena
+	 * @param buffer neighbor buffer
+	 */
+	private void expand(int node, Board board, SearchArena arena, Board[] buffer) {
+		int moves = arena.cost(node) + 1;
+		int count = board.neighbors(buffer);
+		if (stats != null)
+			stats.generated(count);
+		for (int i = 0; i < count; i++) {
+			int child = arena.add(buffer[i], moves, node);
+			if (child < 0) {
+				if (stats != null)
+					stats.duplicate();
+				continue;
 			}
+			int h = heuristic.estimate(buffer[i]);
+			arena.push(child, moves + h);
+			if (stats != null)
+				stats.queued(h);
 		}
 	}
 
@@ -133,11 +174,38 @@ public class Solver {
 	public int moves() 
 	{
 		if (isSolvable)
-			return historyBoards.size() - 1;
+			return history.length();
 		else
 			return -1;
 	}
 
+	/**
+	 * moves of a shortest solution, 2 bits each; null if no solution
+	 * @return
+	 */
+	public MoveSequence moveSequence() 
+	{
+		return history;
+	}
+
+	/**
+	 * number of boards dequeued and expanded by the search
+	 * @return
+	 */
+	public long nodes() 
+	{
+		return nodes;
+	}
+
+	/**
+	 * telemetry of the search
+	 * @return the SearchStats given to the constructor, null if none
+	 */
+	public SearchStats stats() 
+	{
+		return stats;
+	}
+
 	/**
 	 * sequence of boards in a shortest solution; null if no solution
 	 * @return
@@ -146,9 +214,17 @@ public class Solver {
 	{
 		if (!isSolvable)
 			return null;
-		return historyBoards;
+		return history;
 	}
 
+	/**
+	 * Solves the board of a file
+	 * @param args puzzle file, then an optional heuristic, as
+	 *             Heuristic.forName() reads it (a name or a pattern database
+	 *             file), and options: -stats to print the search telemetry,
+	 *             -progress seconds for progress lines on standard error,
+	 *             -jmx to publish the telemetry as an MBean
+	 */
 	public static void main(String[] args) {
 		// create initial board from file
 		In in = new In(args[0]);
@@ -159,8 +235,31 @@ public class Solver {
 				blocks[i][j] = (short) in.readInt();
 		Board initial = new Board(blocks);
 
+		// options
+		Heuristic heuristic = Heuristic.MANHATTAN;
+		SearchStats stats = null;
+		boolean jmx = false;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("-stats"))
+				stats = stats == null ? new SearchStats() : stats;
+			else if (args[i].equals("-progress"))
+				stats = new SearchStats(System.err, 1000L * Integer.parseInt(args[++i]));
+			else if (args[i].equals("-jmx"))
+				jmx = true;
+			else
+				heuristic = Heuristic.forName(args[i]);
+		}
+		if (jmx) {
+			stats = stats == null ? new SearchStats() : stats;
+			stats.register(args[0]);
+		}
+
 		// solve the puzzle
-		Solver solver = new Solver(initial);
+		Solver solver = new Solver(initial, heuristic, new SearchArena(), stats);
+		if (stats != null) {
+			stats.unregister();
+			StdOut.println(stats);
+		}
 
 		// print solution to standard output
 		if (!solver.isSolvable())
@@ -0,0 +1,179 @@
+/**
+ * WalkingDistance.java
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: Board.java Heuristic.java
+ *
+ * Walking distance heuristic (Takahashi), for boards up to 4x4. Seen row by
+ * row, a board is the count of blocks of every goal row in every row, plus
+ * the row of the blank; a vertical move takes one block of the row next to
+ * the blank into the blank's row. The vertical walking distance is the fewest
+ * such moves from that count to the goal's, and the horizontal one is the same
+ * on columns; their sum is a lower bound, since a move is either vertical or
+ * horizontal. It dominates Manhattan distance, which ignores that blocks of
+ * one row must take turns through the blank.
+ * The counts take few distinct values (24964 for 4x4), so a breadth-first
+ * search from the goal builds a table of all of them once per board size;
+ * rows and columns share it by symmetry. A count is keyed by one long,
+ * N * sum of count[line][group] * (N + 1)^(line * N + group) + blank line,
+ * which a move changes by adding two weights: a tracker updates its keys in
+ * O(1) and looks them up by binary search.
+ *
+ */
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+public class WalkingDistance implements Heuristic {
+	private static final int MAX_N = 4;		// largest board with a table
+	private static final Table[] TABLES = new Table[MAX_N + 1];	// by board size
+
+	private final ThreadLocal<int[]> buffers = new ThreadLocal<int[]>();	// tiles of a board
+
+	/**
+	 * Walking distance of every count of an N-by-N board
+	 */
+	private static final class Table {
+		private final int N;
+		private final long[] weights;	// key change for a block of group g entering line l
+		private final long[] keys;		// sorted keys
+		private final byte[] distances;	// moves to the goal of every key
+
+		Table(int N) {
+			this.N = N;
+			weights = new long[N * N];
+			long power = N;
+			for (int i = 0; i < N * N; i++, power *= N + 1)
+				weights[i] = power;
+
+			// goal: line l holds the N blocks of group l, the last one N - 1 and the blank
+			long goal = N - 1;
+			for (int line = 0; line < N; line++)
+				goal += (line == N - 1 ? N - 1 : N) * weights[line * N + line];
+			HashMap<Long, Integer> seen = new HashMap<Long, Integer>();
+			ArrayDeque<Long> queue = new ArrayDeque<Long>();
+			seen.put(goal, 0);
+			queue.add(goal);
+			int[] counts = new int[N * N];
+			while (!queue.isEmpty()) {
+				long key = queue.remove();
+				int distance = seen.get(key);
+				int blank = (int) (key % N);
+				long rest = key / N;
+				for (int i = 0; i < N * N; i++, rest /= N + 1)
+					counts[i] = (int) (rest % (N + 1));
+				for (int line = blank - 1; line <= blank + 1; line += 2) {
+					if (line < 0 || line >= N)
+						continue;
+					for (int group = 0; group < N; group++) {
+						if (counts[line * N + group] == 0)
+							continue;
+						long next = move(key, group, line, blank);
+						if (!seen.containsKey(next)) {
+							seen.put(next, distance + 1);
+							queue.add(next);
+						}
+					}
+				}
+			}
+
+			long[] entries = new long[seen.size()];		// key then distance in the low byte
+			int n = 0;
+			for (Map.Entry<Long, Integer> entry : seen.entrySet())
+				entries[n++] = entry.getKey() << 8 | entry.getValue();
+			Arrays.sort(entries);
+			keys = new long[n];
+			distances = new byte[n];
+			for (int i = 0; i < n; i++) {
+				keys[i] = entries[i] >>> 8;
+				distances[i] = (byte) entries[i];
+			}
+		}
+
+		/**
+		 * @return key after a block of group leaves line for the blank's line
+		 */
+		long move(long key, int group, int line, int blank) {
+			return key + weights[blank * N + group] - weights[line * N + group] + (line - blank);
+		}
+
+		int distance(long key) {
+			return distances[Arrays.binarySearch(keys, key)];
+		}
+
+		/**
+		 * @param tiles row-major blocks
+		 * @param byRow count blocks by row and goal row, else by column and
+		 *              goal column
+		 * @return key of the count of tiles
+		 */
+		long key(int[] tiles, boolean byRow) {
+			long key = 0;
+			for (int i = 0; i < tiles.length; i++) {
+				int tile = tiles[i];
+				if (tile == 0)
+					key += byRow ? i / N : i % N;
+				else
+					key += byRow ? weights[i / N * N + (tile - 1) / N]
+							: weights[i % N * N + (tile - 1) % N];
+			}
+			return key;
+		}
+	}
+
+	/**
+	 * @param N
+	 * @return the table of N-by-N boards, built on first use
+	 */
+	private static synchronized Table table(int N) {
+		if (N < 2 || N > MAX_N)
+			throw new IllegalArgumentException("Walking distance is for boards up to "
+					+ MAX_N + "x" + MAX_N);
+		if (TABLES[N] == null)
+			TABLES[N] = new Table(N);
+		return TABLES[N];
+	}
+
+	public int estimate(Board board) {
+		int N = board.dimension();
+		Table table = table(N);
+		int[] tiles = buffers.get();
+		if (tiles == null || tiles.length != N * N) {
+			tiles = new int[N * N];
+			buffers.set(tiles);
+		}
+		for (int i = 0; i < N * N; i++)
+			tiles[i] = board.tile(i);
+		return table.distance(table.key(tiles, true)) + table.distance(table.key(tiles, false));
+	}
+
+	public Tracker tracker(final int[] tiles, final int N) {
+		final Table table = table(N);
+		return new Tracker() {
+			private long rowKey = table.key(tiles, true);		// count by rows
+			private long columnKey = table.key(tiles, false);	// count by columns
+			private int vertical = table.distance(rowKey);
+			private int horizontal = table.distance(columnKey);
+
+			public int value() {
+				return vertical + horizontal;
+			}
+
+			public void moved(int from, int to) {
+				int tile = tiles[to] - 1;
+				if (from / N == to / N) {
+					columnKey = table.move(columnKey, tile % N, from % N, to % N);
+					horizontal = table.distance(columnKey);
+				} else {
+					rowKey = table.move(rowKey, tile / N, from / N, to / N);
+					vertical = table.distance(rowKey);
+				}
+			}
+		};
+	}
+
+	public String toString() {
+		return "walking";
+	}
+}
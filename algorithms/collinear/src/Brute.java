@@ -2,80 +2,90 @@
  * Author: George Titarenko
  * Last updated: 7/25/2014 
  * Compilation: javac Brute.java 
- * Dependencies: stdlib.jar 
+ * Execution: java Brute input.txt [-csv|-binary] [-headless]
+ * Dependencies: stdlib.jar SegmentWriter.java SegmentRenderer.java 
+ *               PointFile.java
  * This is a "Brute" implementation of a pattern recognition of collinear points on a given plane; all 4 
  * colliner points will have their coords printed. The line connected them is drawn. 
  * NOTE: This implementation is not efficiens as it involves 4x nested for loop, killing performance on big-size 
  * inputs. 
+ * The search itself is find(), which hands every 4 collinear points to a SegmentSink; main prints them
+ * through a buffered SegmentWriter and draws everything in one batch at the end (-headless skips it).
  ****************************************************************************/
 
 import java.util.Arrays;
 
 public class Brute {
 	/**
-	 * @param args
-	 *            Reads the input file, the first integer is the number of
-	 *            points, following by te pairst of x, y coords.
+	 * Brute-force search for every 4 collinear points
+	 * @param points input points, not modified
+	 * @param sink receives every 4 collinear points in lexicographic order
+	 * @return number of 4-point groups found
 	 */
-	public static void main(String[] args) {
-
-		// rescale coordinates and turn on animation mode
-		StdDraw.setXscale(0, 32768);
-		StdDraw.setYscale(0, 32768);
-		StdDraw.show(0);
-		StdDraw.setPenRadius(0.01); // make the points a bit larger // read in
-									// the input
-
-		In in = new In(args[0]);
-		int N = in.readInt();
+	public static int find(Point[] points, SegmentSink sink) {
+		int N = points.length;
+		int found = 0;
+		Point[] brutePrint = new Point[4];
 
-		// Create an array of points and populate coords
-		Point[] brute = new Point[N];
-		for (int i = 0; i < N; i++) {
-			if (in.isEmpty())
-				throw new java.util.InputMismatchException("Not enough points provided!\n");
-			int x = in.readInt();
-			int y = in.readInt();
-			Point p = new Point(x, y);
-			brute[i] = p;
-			p.draw();
-			StdDraw.show();
-		}
-
-		// Brute-force search.... Can exit after comparing 1-2 and 2-3, but it
-		// does not matter from
-		// overall performance cost as it is still 4x nested for loop..
+		// Brute-force search.... still a 4x nested for loop, but the s loop is
+		// skipped unless p, q, r are collinear. Slopes are compared as exact
+		// keys, each computed once per loop level.
 		for (int p = 0; p < N; p++) {
 			for (int q = p + 1; q < N; q++) {
+				long pq = points[p].slopeKey(points[q]);
 				for (int r = q + 1; r < N; r++) {
+					if (points[p].slopeKey(points[r]) != pq)
+						continue;
 					for (int s = r + 1; s < N; s++) {
-						if ((brute[p].slopeTo(brute[q]) == brute[p].slopeTo(brute[r]))
-								&& (brute[p].slopeTo(brute[q]) == brute[p].slopeTo(brute[s])))
-
+						if (points[p].slopeKey(points[s]) == pq)
 						{
-							Point[] brutePrint = new Point[4];
-							brutePrint[0] = brute[p];
-							brutePrint[1] = brute[q];
-							brutePrint[2] = brute[r];
-							brutePrint[3] = brute[s];
+							brutePrint[0] = points[p];
+							brutePrint[1] = points[q];
+							brutePrint[2] = points[r];
+							brutePrint[3] = points[s];
 
 							Arrays.sort(brutePrint);
-							System.out.print(brutePrint[0].toString() + " -> "
-									+ brutePrint[1].toString() + " -> "
-									+ brutePrint[2].toString() + " -> "
-									+ brutePrint[3].toString() + "\n");
-							brutePrint[0].drawTo(brutePrint[3]);
-							brutePrint = null;
+							sink.segment(brutePrint, 4);
+							found++;
 						}
 					}
 				}
 			}
 		}
+		return found;
+	}
+
+	/**
+	 * @param args
+	 *            Reads the input file, the first integer is the number of
+	 *            points, following by te pairst of x, y coords. Optional
+	 *            arguments: -csv or -binary output instead of text,
+	 *            -headless to skip drawing.
+	 */
+	public static void main(String[] args) {
+		SegmentWriter.Format format = SegmentWriter.Format.TEXT;
+		boolean draw = true;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("-csv"))
+				format = SegmentWriter.Format.CSV;
+			else if (args[i].equals("-binary"))
+				format = SegmentWriter.Format.BINARY;
+			else if (args[i].equals("-headless"))
+				draw = false;
+			else
+				throw new IllegalArgumentException("Unknown option " + args[i]);
+		}
+
+		// text or binary point file, parsed straight from the mapped bytes
+		Point[] brute = PointFile.load(args[0]).points();
 
-		// display to screen all at once
-		StdDraw.show();
+		SegmentWriter writer = new SegmentWriter(System.out, format);
+		SegmentRenderer renderer = draw ? new SegmentRenderer(brute) : null;
+		find(brute, draw ? new SegmentSink.Tee(writer, renderer) : writer);
+		writer.flush();
 
-		// reset the pen radius
-		StdDraw.setPenRadius();
+		// draw points and segments all at once
+		if (draw)
+			renderer.render();
 	}
 }
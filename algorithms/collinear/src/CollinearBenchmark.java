@@ -0,0 +1,317 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac CollinearBenchmark.java
+ * Execution: java CollinearBenchmark [sizes] [filter]
+ * Dependencies: Brute.java CollinearKernel.java CollinearFinder.java
+ *               IncrementalCollinear.java LineIndex.java HoughDetector.java
+ *               stdlib.jar
+ * This is a benchmark harness for the collinear searches: Brute, the Fast
+ * kernels with both groupings, the CollinearFinder entry points and the newer
+ * engines, over several generated workloads:
+ * - uniform: random points over [0, 2^20)^2, almost no collinear groups;
+ * - bounded: random points over the [0, 32768)^2 space Fast draws in;
+ * - grid: a square lattice, many collinear groups in every direction;
+ * - oneline: half the points on a single line, the rest random, which makes
+ *   one huge group around every point of that line.
+ * Every (workload, engine, N) triple runs in its own forked JVM, goes through
+ * warm-up iterations followed by timed ones, and reports ms per search, the
+ * bytes allocated per search (summed over all live threads, so the parallel
+ * engines' workers count) and GC activity. The scaling report then fits the
+ * exponent k of time ~ N^k by least squares over the sizes, to check the
+ * asymptotic claims: ~3 for Brute, whose innermost loop only runs for
+ * collinear triples, and ~2 for the hashed kernel.
+ * NOTE: Brute is only run up to BRUTE_MAX_N points. filter keeps the rows
+ * whose workload or engine contains it, e.g. "java CollinearBenchmark
+ * 250,500,1000 kernel".
+ ****************************************************************************/
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+public class CollinearBenchmark {
+	private static final int WARMUP_ITERATIONS = 3;			// iterations thrown away
+	private static final int MEASURE_ITERATIONS = 5;		// iterations reported
+	private static final long ITERATION_NANOS = 500000000L;	// least time spent in one iteration
+	private static final String RESULT_TAG = "#result";		// marks the line a fork reports
+	private static final int BRUTE_MAX_N = 800;				// largest input given to Brute
+	private static final long SEED = 20141019L;				// inputs are the same in every fork
+
+	private static final String[] WORKLOADS = { "uniform", "bounded", "grid", "oneline" };
+	private static final String[] ENGINES = { "brute", "kernel-sort", "kernel-hash", "finder",
+			"finder-parallel", "incremental", "line-index", "hough" };
+
+	private static volatile long sink;		// consumes results so the JIT can't drop the work
+
+	/**
+	 * Generates the N points of a workload, always the same ones for a given N
+	 * @param workload
+	 * @param N
+	 * @return distinct points
+	 */
+	private static Point[] generate(String workload, int N) {
+		StdRandom.setSeed(SEED + N);
+		Set<Point> points = new HashSet<Point>();
+		if (workload.equals("uniform")) {
+			while (points.size() < N)
+				points.add(new Point(StdRandom.uniform(1 << 20), StdRandom.uniform(1 << 20)));
+		} else if (workload.equals("bounded")) {
+			while (points.size() < N)
+				points.add(new Point(StdRandom.uniform(32768), StdRandom.uniform(32768)));
+		} else if (workload.equals("grid")) {
+			int side = (int) Math.ceil(Math.sqrt(N));
+			int step = 32768 / side;
+			for (int i = 0; points.size() < N; i++)
+				points.add(new Point((i % side) * step, (i / side) * step));
+		} else if (workload.equals("oneline")) {
+			int step = Math.max(1, 16384 / N);	// y = x / 2, exactly, for every point
+			for (int i = 0; points.size() < N / 2; i++)
+				points.add(new Point(2 * i * step, i * step));
+			while (points.size() < N)
+				points.add(new Point(StdRandom.uniform(32768), StdRandom.uniform(32768)));
+		} else
+			throw new IllegalArgumentException("Unknown workload " + workload);
+
+		Point[] result = points.toArray(new Point[N]);
+		StdRandom.shuffle(result);
+		return result;
+	}
+
+	/**
+	 * One search of an engine over a fixed input
+	 */
+	private static abstract class Search {
+		abstract long run();
+	}
+
+	/**
+	 * Counts what goes through a SegmentSink
+	 */
+	private static class CountingSink implements SegmentSink {
+		long points;
+
+		public void segment(Point[] collinear, int count) {
+			points += count;
+		}
+	}
+
+	private static Search newSearch(String engine, final Point[] points) {
+		final int N = points.length;
+		final int[] xs = new int[N], ys = new int[N];
+		for (int i = 0; i < N; i++) {
+			xs[i] = points[i].x();
+			ys[i] = points[i].y();
+		}
+		final CollinearKernel.Visitor counter = new CollinearKernel.Visitor() {
+			public void collinear(int[] indices, int count) {
+				sink += count;
+			}
+		};
+
+		if (engine.equals("brute"))
+			return new Search() {
+				long run() { return Brute.find(points, new CountingSink()); }
+			};
+		if (engine.equals("kernel-sort") || engine.equals("kernel-hash")) {
+			final CollinearKernel kernel = new CollinearKernel(xs, ys, 4, engine.equals("kernel-sort")
+					? CollinearKernel.Grouping.SORT : CollinearKernel.Grouping.HASH);
+			return new Search() {
+				long run() { return kernel.searchAll(counter); }
+			};
+		}
+		if (engine.equals("finder"))
+			return new Search() {
+				long run() { return CollinearFinder.find(points, 4, new CountingSink()); }
+			};
+		if (engine.equals("finder-parallel"))
+			return new Search() {
+				long run() { return CollinearFinder.findParallel(points, 4, new CountingSink()); }
+			};
+		if (engine.equals("incremental"))
+			return new Search() {
+				long run() {
+					IncrementalCollinear incremental = new IncrementalCollinear(4,
+							new IncrementalCollinear.Listener() {
+								public void segmentAdded(int id, Segment segment) { }
+								public void segmentExtended(int id, Segment segment) { }
+							});
+					for (Point p : points)
+						incremental.insert(p);
+					return incremental.segmentCount();
+				}
+			};
+		if (engine.equals("line-index"))
+			return new Search() {
+				long run() {
+					return LineIndex.build(xs, ys, 4, ForkJoinPool.commonPool()).lineCount();
+				}
+			};
+		if (engine.equals("hough"))
+			return new Search() {
+				long run() { return new HoughDetector(points, 4, 0).call().size(); }
+			};
+		throw new IllegalArgumentException("Unknown engine " + engine);
+	}
+
+	/**
+	 * Runs one workload/engine/size triple in this JVM and prints its result line
+	 */
+	private static void runFork(String workload, String engine, int N) {
+		Search search = newSearch(engine, generate(workload, N));
+		com.sun.management.ThreadMXBean threads =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		double[] millisPerOp = new double[MEASURE_ITERATIONS];
+		long totalOps = 0, totalBytes = 0;
+		long[] gc = new long[2];			// collections and their ms over the timed iterations
+		for (int iteration = 0; iteration < WARMUP_ITERATIONS + MEASURE_ITERATIONS; iteration++) {
+			long[] gcBefore = gcTotals();
+			long bytesBefore = allocatedBytes(threads);
+			long start = System.nanoTime(), elapsed, ops = 0, checksum = 0;
+			do {
+				checksum += search.run();
+				ops++;
+			} while ((elapsed = System.nanoTime() - start) < ITERATION_NANOS);
+			long bytes = allocatedBytes(threads) - bytesBefore;
+			sink += checksum;
+
+			if (iteration >= WARMUP_ITERATIONS) {
+				millisPerOp[iteration - WARMUP_ITERATIONS] = elapsed / 1e6 / ops;
+				totalOps += ops;
+				totalBytes += bytes;
+				long[] gcAfter = gcTotals();
+				for (int k = 0; k < gc.length; k++)
+					gc[k] += gcAfter[k] - gcBefore[k];
+			}
+		}
+
+		double mean = 0, variance = 0;
+		for (double v : millisPerOp)
+			mean += v / MEASURE_ITERATIONS;
+		for (double v : millisPerOp)
+			variance += (v - mean) * (v - mean) / (MEASURE_ITERATIONS - 1);
+		System.out.println(RESULT_TAG + " " + workload + " " + engine + " " + N + " " + mean + " "
+				+ Math.sqrt(variance) + " " + (double) totalBytes / totalOps + " "
+				+ gc[0] + " " + gc[1]);
+	}
+
+	/**
+	 * Bytes allocated so far by the live threads of this JVM
+	 */
+	private static long allocatedBytes(com.sun.management.ThreadMXBean threads) {
+		long total = 0;
+		for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds()))
+			total += Math.max(0, bytes);
+		return total;
+	}
+
+	/**
+	 * Collections and collection ms so far, summed over the collectors
+	 */
+	private static long[] gcTotals() {
+		long[] totals = new long[2];
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+			totals[0] += Math.max(0, gc.getCollectionCount());
+			totals[1] += Math.max(0, gc.getCollectionTime());
+		}
+		return totals;
+	}
+
+	/**
+	 * Starts a fresh JVM with the same classpath for one workload/engine/size triple
+	 * @return the fork's result line, split into fields
+	 */
+	private static String[] fork(String workload, String engine, int N) throws Exception {
+		String javaBin = System.getProperty("java.home") + File.separator + "bin"
+				+ File.separator + "java";
+		ProcessBuilder builder = new ProcessBuilder(javaBin, "-cp",
+				System.getProperty("java.class.path"), CollinearBenchmark.class.getName(),
+				"--fork", workload, engine, Integer.toString(N));
+		builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+		Process process = builder.start();
+		BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()));
+		String[] result = null;
+		for (String line = out.readLine(); line != null; line = out.readLine())
+			if (line.startsWith(RESULT_TAG))
+				result = line.split(" ");
+		if (process.waitFor() != 0 || result == null)
+			throw new IllegalStateException("Fork failed for " + workload + " " + engine + " " + N);
+		return result;
+	}
+
+	/**
+	 * Least-squares slope of log(millis) against log(N)
+	 */
+	private static double scalingExponent(List<Integer> sizes, List<Double> millis) {
+		int n = sizes.size();
+		double sx = 0, sy = 0, sxx = 0, sxy = 0;
+		for (int i = 0; i < n; i++) {
+			double x = Math.log(sizes.get(i)), y = Math.log(millis.get(i));
+			sx += x;
+			sy += y;
+			sxx += x * x;
+			sxy += x * y;
+		}
+		return (n * sxy - sx * sy) / (n * sxx - sx * sx);
+	}
+
+	/**
+	 * Main method, accepts optional comma separated sizes and a name filter,
+	 * prints one row per workload/engine/size and then the scaling report
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0 && args[0].equals("--fork")) {
+			runFork(args[1], args[2], Integer.parseInt(args[3]));
+			return;
+		}
+		String[] sizeArgs = (args.length > 0 ? args[0] : "100,200,400,800").split(",");
+		String filter = args.length > 1 ? args[1] : "";
+		int[] sizes = new int[sizeArgs.length];
+		for (int i = 0; i < sizes.length; i++) {
+			sizes[i] = Integer.parseInt(sizeArgs[i]);
+			if (sizes[i] < 4)
+				throw new IllegalArgumentException("sizes must be at least 4");
+		}
+
+		List<String> report = new ArrayList<String>();
+		System.out.printf("%-8s %-16s %7s %12s %10s %14s %5s %7s%n", "workload", "engine", "N",
+				"ms/op", "+-", "B/op", "gc", "gc ms");
+		for (String workload : WORKLOADS) {
+			for (String engine : ENGINES) {
+				if (!workload.contains(filter) && !engine.contains(filter))
+					continue;
+				List<Integer> measured = new ArrayList<Integer>();
+				List<Double> millis = new ArrayList<Double>();
+				for (int N : sizes) {
+					if (engine.equals("brute") && N > BRUTE_MAX_N)
+						continue;
+					String[] r = fork(workload, engine, N);
+					double millisPerOp = Double.parseDouble(r[4]);
+					System.out.printf("%-8s %-16s %7d %12.3f %10.3f %14.0f %5s %7s%n", workload,
+							engine, N, millisPerOp, Double.parseDouble(r[5]),
+							Double.parseDouble(r[6]), r[7], r[8]);
+					measured.add(N);
+					millis.add(millisPerOp);
+				}
+				if (measured.size() > 1)
+					report.add(String.format("%-8s %-16s %8.2f", workload, engine,
+							scalingExponent(measured, millis)));
+			}
+		}
+
+		System.out.println();
+		System.out.println("N-scaling, time ~ N^k:");
+		System.out.printf("%-8s %-16s %8s%n", "workload", "engine", "k");
+		for (String line : report)
+			System.out.println(line);
+	}
+}
@@ -0,0 +1,103 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac CollinearFinder.java
+ * Dependencies: Point.java Segment.java SegmentSink.java CollinearKernel.java
+ *               FastEngine.java HoughDetector.java
+ * This is the headless library entry point of the collinear search: no
+ * drawing, no console output, every maximal segment of at least minPoints
+ * collinear points goes to a SegmentSink.
+ * find() runs one CollinearKernel on the calling thread and streams segments
+ * as they are found, ordered by their smallest point's index in the input.
+ * findParallel() runs FastEngine and delivers the segments sorted by
+ * endpoints once the whole search is done.
+ * findApproximate() runs HoughDetector for noisy inputs: points within a
+ * distance tolerance of a line count as collinear.
+ ****************************************************************************/
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+public final class CollinearFinder {
+
+	private CollinearFinder() {
+	}
+
+	/**
+	 * Streams every maximal segment of at least minPoints collinear points
+	 * @param points input points, not modified
+	 * @param minPoints smallest number of collinear points reported (at least 3)
+	 * @param sink receiver of the segments
+	 * @return number of segments found
+	 */
+	public static int find(Point[] points, int minPoints, SegmentSink sink) {
+		final int N = points.length;
+		final Point[] input = points.clone();
+		int[] xs = new int[N], ys = new int[N];
+		for (int i = 0; i < N; i++) {
+			xs[i] = input[i].x();
+			ys[i] = input[i].y();
+		}
+
+		final Point[] buffer = new Point[N];
+		final SegmentSink target = sink;
+		CollinearKernel kernel = new CollinearKernel(xs, ys, minPoints, CollinearKernel.Grouping.HASH);
+		return kernel.searchAll(new CollinearKernel.Visitor() {
+			public void collinear(int[] indices, int count) {
+				for (int k = 0; k < count; k++)
+					buffer[k] = input[indices[k]];
+				target.segment(buffer, count);
+			}
+		});
+	}
+
+	/**
+	 * Finds every maximal segment of at least minPoints collinear points on
+	 * the common fork-join pool and delivers them sorted by endpoints
+	 * @param points input points, not modified
+	 * @param minPoints smallest number of collinear points reported (at least 3)
+	 * @param sink receiver of the segments
+	 * @return number of segments found
+	 */
+	public static int findParallel(Point[] points, int minPoints, SegmentSink sink) {
+		return findParallel(points, minPoints, CollinearKernel.Grouping.HASH, sink);
+	}
+
+	/**
+	 * findParallel() with a chosen slope grouping
+	 * @param points input points, not modified
+	 * @param minPoints smallest number of collinear points reported (at least 3)
+	 * @param grouping how points are grouped by slope
+	 * @param sink receiver of the segments
+	 * @return number of segments found
+	 */
+	public static int findParallel(Point[] points, int minPoints,
+			CollinearKernel.Grouping grouping, SegmentSink sink) {
+		return deliver(new FastEngine(points, minPoints, grouping,
+				ForkJoinPool.commonPool()).call(), points.length, sink);
+	}
+
+	/**
+	 * Finds segments of at least minPoints points lying within tolerance of a
+	 * common line, with a Hough transform, and delivers them sorted by endpoints
+	 * @param points input points, not modified
+	 * @param minPoints smallest number of points on a segment (at least 3)
+	 * @param tolerance largest distance of a point to its segment's line
+	 * @param sink receiver of the segments
+	 * @return number of segments found
+	 */
+	public static int findApproximate(Point[] points, int minPoints, double tolerance,
+			SegmentSink sink) {
+		return deliver(new HoughDetector(points, minPoints, tolerance).call(), points.length, sink);
+	}
+
+	private static int deliver(List<Segment> segments, int maxSize, SegmentSink sink) {
+		Point[] buffer = new Point[maxSize];
+		for (Segment segment : segments) {
+			for (int k = 0; k < segment.size(); k++)
+				buffer[k] = segment.point(k);
+			sink.segment(buffer, segment.size());
+		}
+		return segments.size();
+	}
+}
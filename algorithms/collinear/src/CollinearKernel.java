@@ -0,0 +1,270 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac CollinearKernel.java
+ * Dependencies: Point.java LongIntHashMap.java
+ * This is the single-threaded core of the Fast search over struct-of-arrays
+ * input (int[] xs, int[] ys). For a reference point it computes the slope key
+ * of every other point once, then groups point indexes by key, either sorting
+ * (key, index) pairs with a primitive 3-way quicksort or bucketing them in a
+ * LongIntHashMap. Collinear groups are handed to a Visitor as index arrays.
+ * NOTE: all buffers are allocated by the constructor and reused, so a search
+ * allocates nothing. The index array given to the Visitor is one of those
+ * buffers: it is valid only during the call. One kernel per thread.
+ ****************************************************************************/
+
+public class CollinearKernel {
+	private static final int INSERTION_SORT_CUTOFF = 12;	// small ranges use insertion sort
+
+	/**
+	 * How the points are grouped by slope around each reference point
+	 */
+	public enum Grouping {
+		SORT,		// sort (key, index) pairs and walk runs of equal keys
+		HASH		// bucket by slope key in a LongIntHashMap
+	}
+
+	/**
+	 * Receives collinear groups. indices[0..count) are point indexes in
+	 * lexicographic order, indices[0] being the reference point.
+	 */
+	public interface Visitor {
+		void collinear(int[] indices, int count);
+	}
+
+	private final int[] xs, ys;			// point coordinates
+	private final int minPoints;		// smallest group reported, reference included
+	private final Grouping grouping;	// grouping used around a reference
+
+	private final long[] keys;			// slope keys (then sort keys) being sorted
+	private final int[] order;			// point indexes sorted along with keys
+	private final int[] segment;		// group handed to the visitor
+	private final long[] segmentKeys;	// lexicographic keys of the group
+	private final LongIntHashMap groupIds;	// HASH: slope key -> group id
+	private final int[] groupOf;		// HASH: group id of each point, -1 for none
+	private final int[] counts;			// HASH: group sizes, then group offsets
+	private final boolean[] smallest;	// HASH: is the reference below every point of the group
+	private int seed = 0x2545F491;		// xorshift state for quicksort pivots
+
+	/**
+	 * @param xs x coordinates, shared not copied
+	 * @param ys y coordinates, shared not copied
+	 * @param minPoints smallest number of collinear points reported (at least 3)
+	 * @param grouping how points are grouped by slope
+	 */
+	public CollinearKernel(int[] xs, int[] ys, int minPoints, Grouping grouping) {
+		if (xs.length != ys.length)
+			throw new IllegalArgumentException("xs and ys must have the same length");
+		if (minPoints < 3)
+			throw new IllegalArgumentException("minPoints must be at least 3");
+		int N = xs.length;
+		this.xs = xs;
+		this.ys = ys;
+		this.minPoints = minPoints;
+		this.grouping = grouping;
+		keys = new long[N];
+		order = new int[N];
+		segment = new int[N];
+		segmentKeys = new long[N];
+		if (grouping == Grouping.HASH) {
+			groupIds = new LongIntHashMap(N);
+			groupOf = new int[N];
+			counts = new int[N];
+			smallest = new boolean[N];
+		} else {
+			groupIds = null;
+			groupOf = counts = null;
+			smallest = null;
+		}
+	}
+
+	/**
+	 * number of points
+	 * @return
+	 */
+	public int size() {
+		return xs.length;
+	}
+
+	/**
+	 * Is point i lexicographically smaller than point j (by y, then by x)?
+	 */
+	private boolean less(int i, int j) {
+		return ys[i] < ys[j] || (ys[i] == ys[j] && xs[i] < xs[j]);
+	}
+
+	/**
+	 * Sort key that orders points by y, then by x
+	 */
+	private long lexicographicKey(int i) {
+		return ((long) ys[i] << 32) | ((xs[i] ^ 0x80000000) & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Runs the search from every point in turn
+	 * @param visitor
+	 * @return number of groups reported
+	 */
+	public int searchAll(Visitor visitor) {
+		int found = 0;
+		for (int ref = 0; ref < xs.length; ref++)
+			found += search(ref, visitor);
+		return found;
+	}
+
+	/**
+	 * Reports every maximal group of at least minPoints collinear points
+	 * whose lexicographically smallest point is ref
+	 * @param ref index of the reference point
+	 * @param visitor
+	 * @return number of groups reported
+	 */
+	public int search(int ref, Visitor visitor) {
+		if (grouping == Grouping.SORT)
+			return searchSorted(ref, visitor);
+		return searchHashed(ref, visitor);
+	}
+
+	private int searchSorted(int ref, Visitor visitor) {
+		int N = xs.length, x0 = xs[ref], y0 = ys[ref], found = 0;
+		for (int i = 0; i < N; i++) {
+			keys[i] = Point.slopeKey(xs[i] - x0, ys[i] - y0);
+			order[i] = i;
+		}
+		sort(keys, order, 0, N - 1);
+
+		// walk the runs of equal keys, the reference and its duplicates excluded
+		for (int start = 0, end; start < N; start = end) {
+			boolean isSmallest = less(ref, order[start]);
+			for (end = start + 1; end < N && keys[end] == keys[start]; end++)
+				isSmallest &= less(ref, order[end]);
+
+			if (end - start + 1 < minPoints || !isSmallest
+					|| keys[start] == Point.DEGENERATE_SLOPE)
+				continue;
+
+			segment[0] = ref;
+			System.arraycopy(order, start, segment, 1, end - start);
+			emit(end - start + 1, visitor);
+			found++;
+		}
+		return found;
+	}
+
+	private int searchHashed(int ref, Visitor visitor) {
+		int N = xs.length, x0 = xs[ref], y0 = ys[ref], found = 0;
+
+		// bucket every point by its slope key to the reference
+		groupIds.clear();
+		int groups = 0;
+		for (int i = 0; i < N; i++) {
+			long key = Point.slopeKey(xs[i] - x0, ys[i] - y0);
+			if (key == Point.DEGENERATE_SLOPE) {
+				groupOf[i] = -1;
+				continue;
+			}
+			int g = groupIds.putIfAbsent(key, groups);
+			if (g == groups) {
+				counts[groups] = 0;
+				smallest[groups++] = true;
+			}
+			groupOf[i] = g;
+			counts[g]++;
+			if (!less(ref, i))
+				smallest[g] = false;
+		}
+
+		// keep the groups this reference reports, turning sizes into offsets
+		int total = 0;
+		for (int g = 0; g < groups; g++) {
+			int size = counts[g];
+			if (size + 1 < minPoints || !smallest[g]) {
+				counts[g] = -1;
+				continue;
+			}
+			counts[g] = total;
+			total += size;
+		}
+		if (total == 0)
+			return 0;
+		for (int i = 0; i < N; i++) {
+			int g = groupOf[i];
+			if (g >= 0 && counts[g] >= 0)
+				order[counts[g]++] = i;
+		}
+
+		// counts[g] now ends group g, which starts where the previous kept group ended
+		for (int g = 0, start = 0; g < groups; g++) {
+			if (counts[g] < 0)
+				continue;
+			segment[0] = ref;
+			System.arraycopy(order, start, segment, 1, counts[g] - start);
+			emit(counts[g] - start + 1, visitor);
+			found++;
+			start = counts[g];
+		}
+		return found;
+	}
+
+	/**
+	 * Puts segment[1..count) in lexicographic order and hands it over.
+	 * segment[0] is the reference, already the smallest.
+	 */
+	private void emit(int count, Visitor visitor) {
+		for (int k = 1; k < count; k++)
+			segmentKeys[k] = lexicographicKey(segment[k]);
+		sort(segmentKeys, segment, 1, count - 1);
+		visitor.collinear(segment, count);
+	}
+
+	/**
+	 * Sorts a[lo..hi] ascending, applying the same moves to idx[lo..hi].
+	 * 3-way quicksort with random pivots: runs of equal keys are settled in a
+	 * single partitioning step. Recurses into the smaller part only.
+	 */
+	private void sort(long[] a, int[] idx, int lo, int hi) {
+		while (hi - lo > INSERTION_SORT_CUTOFF) {
+			seed ^= seed << 13;
+			seed ^= seed >>> 17;
+			seed ^= seed << 5;
+			int p = lo + (int) ((seed & 0x7FFFFFFFL) % (hi - lo + 1));
+			swap(a, idx, lo, p);
+			long v = a[lo];
+			int lt = lo, gt = hi, i = lo + 1;
+			while (i <= gt) {
+				if (a[i] < v)
+					swap(a, idx, lt++, i++);
+				else if (a[i] > v)
+					swap(a, idx, i, gt--);
+				else
+					i++;
+			}
+			if (lt - lo < hi - gt) {
+				sort(a, idx, lo, lt - 1);
+				lo = gt + 1;
+			} else {
+				sort(a, idx, gt + 1, hi);
+				hi = lt - 1;
+			}
+		}
+		for (int i = lo + 1; i <= hi; i++) {
+			long v = a[i];
+			int w = idx[i], j = i - 1;
+			for (; j >= lo && a[j] > v; j--) {
+				a[j + 1] = a[j];
+				idx[j + 1] = idx[j];
+			}
+			a[j + 1] = v;
+			idx[j + 1] = w;
+		}
+	}
+
+	private static void swap(long[] a, int[] idx, int i, int j) {
+		long t = a[i];
+		a[i] = a[j];
+		a[j] = t;
+		int w = idx[i];
+		idx[i] = idx[j];
+		idx[j] = w;
+	}
+}
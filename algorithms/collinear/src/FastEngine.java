@@ -0,0 +1,122 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac FastEngine.java
+ * Dependencies: Point.java Segment.java CollinearKernel.java
+ * This is the search behind Fast as a callable engine. Every point in turn is
+ * used as a reference and the others are grouped by the exact slope key they
+ * make with it; every group is collinear with the reference. Two groupings:
+ * SORT sorts the points by slope (O(N^2 log N) overall), HASH buckets them by
+ * slope key in a primitive hash map (O(N^2) expected overall).
+ * Reference points are independent of each other, so they are split across a
+ * fork-join pool; every worker thread runs its own CollinearKernel over the
+ * shared coordinate arrays.
+ * NOTE: a segment is kept only by its lexicographically smallest point (no
+ * permutations, no sub-segments), found segments go through a concurrent
+ * canonical set and are returned sorted, so the result does not depend on
+ * the number of threads or on scheduling.
+ ****************************************************************************/
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class FastEngine implements Callable<List<Segment>> {
+	private static final int TASKS_PER_THREAD = 8;	// split granularity for load balancing
+
+	private final Point[] points;			// input points
+	private final int[] xs, ys;				// input coordinates
+	private final int minPoints;			// smallest segment reported
+	private final CollinearKernel.Grouping grouping;	// grouping used around a reference
+	private final ForkJoinPool pool;		// pool running the reference points
+	private final ThreadLocal<CollinearKernel> kernels = new ThreadLocal<CollinearKernel>();
+
+	/**
+	 * Engine looking for 4 or more collinear points on the common pool
+	 * @param points
+	 */
+	public FastEngine(Point[] points) {
+		this(points, 4, CollinearKernel.Grouping.SORT, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param points input points, not modified
+	 * @param minPoints smallest number of collinear points reported (at least 3)
+	 * @param grouping how points are grouped by slope
+	 * @param pool pool to run the search on
+	 */
+	public FastEngine(Point[] points, int minPoints, CollinearKernel.Grouping grouping,
+			ForkJoinPool pool) {
+		if (minPoints < 3)
+			throw new IllegalArgumentException("minPoints must be at least 3");
+		this.points = points.clone();
+		this.xs = new int[points.length];
+		this.ys = new int[points.length];
+		for (int i = 0; i < points.length; i++) {
+			xs[i] = points[i].x();
+			ys[i] = points[i].y();
+		}
+		this.minPoints = minPoints;
+		this.grouping = grouping;
+		this.pool = pool;
+	}
+
+	/**
+	 * Runs the search
+	 * @return maximal segments, sorted by their endpoints
+	 */
+	public List<Segment> call() {
+		Set<Segment> found = Collections.newSetFromMap(new ConcurrentHashMap<Segment, Boolean>());
+		int grain = Math.max(1, points.length / (pool.getParallelism() * TASKS_PER_THREAD));
+		pool.invoke(new ReferenceTask(0, points.length, grain, found));
+
+		List<Segment> segments = new ArrayList<Segment>(found);
+		Collections.sort(segments);
+		return segments;
+	}
+
+	/**
+	 * Fork-join task over a range of reference point indexes
+	 */
+	private class ReferenceTask extends RecursiveAction implements CollinearKernel.Visitor {
+		private static final long serialVersionUID = 1L;
+		private final int lo, hi, grain;
+		private final Set<Segment> found;
+
+		ReferenceTask(int lo, int hi, int grain, Set<Segment> found) {
+			this.lo = lo;
+			this.hi = hi;
+			this.grain = grain;
+			this.found = found;
+		}
+
+		@Override
+		protected void compute() {
+			if (hi - lo <= grain) {
+				CollinearKernel kernel = kernels.get();
+				if (kernel == null) {
+					kernel = new CollinearKernel(xs, ys, minPoints, grouping);
+					kernels.set(kernel);
+				}
+				for (int ref = lo; ref < hi; ref++)
+					kernel.search(ref, this);
+				return;
+			}
+			int mid = (lo + hi) >>> 1;
+			invokeAll(new ReferenceTask(lo, mid, grain, found),
+					new ReferenceTask(mid, hi, grain, found));
+		}
+
+		public void collinear(int[] indices, int count) {
+			Point[] collinear = new Point[count];
+			for (int k = 0; k < count; k++)
+				collinear[k] = points[indices[k]];
+			found.add(new Segment(collinear));
+		}
+	}
+}
@@ -0,0 +1,464 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac HoughDetector.java
+ * Execution: java HoughDetector input.txt minPoints tolerance
+ * Dependencies: Point.java Segment.java LongIntHashMap.java SegmentWriter.java
+ *               PointFile.java stdlib.jar
+ * This is an approximate collinearity search for noisy inputs, where exactly
+ * collinear points are rare. It is a Hough transform: every point votes for
+ * every (theta, rho) cell of a quantized accumulator whose line
+ * x cos(theta) + y sin(theta) = rho passes through it; cells with many votes
+ * are candidate lines.
+ * Voting runs over bands of theta rows in parallel, each band in its own
+ * sparse accumulator (a LongIntHashMap holding only the cells that got a vote)
+ * which is discarded once its peaks are extracted. Bands are sized so that the
+ * accumulators of all the pool's threads together hold at most CELLS_IN_USE
+ * cells, whatever the number of points. A peak is a cell with at least
+ * minVotes votes and no more votes around it. By default minVotes sits well
+ * above the votes a cell gets from points spread evenly over the accumulator,
+ * so only lines stand out however many points there are, and only the
+ * maxPeaks peaks with the most votes go on. Every peak is then refined
+ * against the points themselves: the points near the peak line are gathered,
+ * a total least-squares line is fitted through them and every point within
+ * tolerance of it is gathered again; the peak becomes a Segment if at least
+ * minPoints points are within tolerance of the final fit.
+ * NOTE: work is O(N * thetaBins) for voting and O(N) per peak holding at
+ * least minPoints points, for at most maxPeaks peaks, for refinement; a line
+ * with fewer points than the background noise of its cells is missed.
+ * Neighbouring peaks of one line converge to (nearly) the same points: a line
+ * sharing most of its points with a larger one of the same direction is
+ * dropped, and segments come back sorted.
+ ****************************************************************************/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+public class HoughDetector implements Callable<List<Segment>> {
+	private static final int DEFAULT_THETA_BINS = 1800;		// 0.1 degree per row
+	private static final int DEFAULT_MAX_PEAKS = 512;		// peaks refined
+	private static final long CELLS_IN_USE = 1L << 21;		// bound on accumulator cells of all bands
+	private static final double NOISE_SIGMAS = 4;			// default minVotes above the mean background
+	private static final double EPSILON = 1e-9;				// slack for exact (tolerance 0) matches
+	private static final int REFINE_PASSES = 3;				// fit / re-gather rounds per peak
+
+	private final Point[] points;		// input points
+	private final int[] xs, ys;			// input coordinates
+	private final int minPoints;		// smallest segment reported
+	private final int minVotes;			// smallest peak considered
+	private final int maxPeaks;			// most peaks refined
+	private final double tolerance;		// largest distance of a point to its line
+	private final double rhoStep;		// width of a rho bin
+	private final double maxRho;		// largest |rho| of any point
+	private final int thetaBins;		// number of theta rows over [0, pi)
+	private final double[] cos, sin;	// cos and sin of every theta row
+	private final ForkJoinPool pool;	// pool running bands and refinement
+
+	/**
+	 * A peak of the accumulator, then the points gathered around it
+	 */
+	private static class Candidate {
+		final int theta, rho, votes;	// cell and its votes
+		int[] near = new int[8];		// indexes of the points close to the cell's line
+		int size;						// used part of near
+
+		Candidate(int theta, int rho, int votes) {
+			this.theta = theta;
+			this.rho = rho;
+			this.votes = votes;
+		}
+
+		void add(int index) {
+			if (size == near.length)
+				near = Arrays.copyOf(near, 2 * size);
+			near[size++] = index;
+		}
+	}
+
+	/**
+	 * Detector with the default resolution, running on the common pool
+	 * @param points input points, not modified
+	 * @param minPoints smallest number of points on a reported segment (at least 3)
+	 * @param tolerance largest distance of a point to the line it belongs to
+	 */
+	public HoughDetector(Point[] points, int minPoints, double tolerance) {
+		this(points, minPoints, tolerance, DEFAULT_THETA_BINS,
+				defaultMinVotes(points, minPoints, tolerance, DEFAULT_THETA_BINS), DEFAULT_MAX_PEAKS,
+				ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param points input points, not modified
+	 * @param minPoints smallest number of points on a reported segment (at least 3)
+	 * @param tolerance largest distance of a point to the line it belongs to
+	 * @param thetaBins number of angle rows over [0, pi)
+	 * @param minVotes smallest accumulator peak refined (at least 2); noisy
+	 *            points spread their votes over neighbouring cells, so this is
+	 *            usually below minPoints, but it must stay above the votes
+	 *            every cell gets from the other points
+	 * @param maxPeaks most peaks refined, those with the most votes
+	 * @param pool pool to run on
+	 */
+	public HoughDetector(Point[] points, int minPoints, double tolerance, int thetaBins,
+			int minVotes, int maxPeaks, ForkJoinPool pool) {
+		if (minPoints < 3)
+			throw new IllegalArgumentException("minPoints must be at least 3");
+		if (minVotes < 2)
+			throw new IllegalArgumentException("minVotes must be at least 2");
+		if (tolerance < 0 || thetaBins < 1 || maxPeaks < 1)
+			throw new IllegalArgumentException("tolerance, thetaBins and maxPeaks must be positive");
+		this.points = points.clone();
+		this.xs = new int[points.length];
+		this.ys = new int[points.length];
+		for (int i = 0; i < points.length; i++) {
+			xs[i] = points[i].x();
+			ys[i] = points[i].y();
+		}
+		this.minPoints = minPoints;
+		this.minVotes = minVotes;
+		this.maxPeaks = maxPeaks;
+		this.tolerance = tolerance;
+		this.maxRho = maxRho(points);
+		this.rhoStep = rhoStep(maxRho, tolerance, thetaBins);
+		this.thetaBins = thetaBins;
+		this.cos = new double[thetaBins];
+		this.sin = new double[thetaBins];
+		for (int t = 0; t < thetaBins; t++) {
+			cos[t] = Math.cos(Math.PI * t / thetaBins);
+			sin[t] = Math.sin(Math.PI * t / thetaBins);
+		}
+		this.pool = pool;
+	}
+
+	private static double maxRho(Point[] points) {
+		double maxRho = 0;
+		for (Point p : points)
+			maxRho = Math.max(maxRho, Math.hypot(p.x(), p.y()));
+		return maxRho;
+	}
+
+	/**
+	 * A bin must hold the noise band, and the rho drift along a line whose
+	 * angle falls half a row away from the row's angle
+	 */
+	private static double rhoStep(double maxRho, double tolerance, int thetaBins) {
+		return Math.max(Math.max(1.0, 2 * tolerance), maxRho * Math.PI / thetaBins / 2);
+	}
+
+	/**
+	 * Default peak threshold: half of minPoints, or NOISE_SIGMAS standard
+	 * deviations above the mean votes of a cell when the points are spread
+	 * evenly over the maxRho wide range of a row, if that is more
+	 */
+	private static int defaultMinVotes(Point[] points, int minPoints, double tolerance,
+			int thetaBins) {
+		double maxRho = maxRho(points);
+		double mean = maxRho == 0 ? 0 : points.length * rhoStep(maxRho, tolerance, thetaBins) / maxRho;
+		long background = (long) Math.ceil(mean + NOISE_SIGMAS * Math.sqrt(mean));
+		return (int) Math.max(Math.max(2, (minPoints + 1) / 2), Math.min(background, Integer.MAX_VALUE));
+	}
+
+	/**
+	 * rho bin of point i in theta row t
+	 */
+	private int rhoBin(int i, int t) {
+		return (int) Math.floor((xs[i] * cos[t] + ys[i] * sin[t]) / rhoStep);
+	}
+
+	private static long cell(int theta, int rho) {
+		return ((long) theta << 32) | (rho & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Runs voting, peak extraction and refinement
+	 * @return the confirmed segments, sorted by their endpoints
+	 */
+	public List<Segment> call() {
+		if (points.length < minPoints)
+			return new ArrayList<Segment>();
+
+		// vote band by band, every band keeping its peaks; bands run
+		// parallelism at a time, so they share CELLS_IN_USE between them
+		long rhoBins = 2 * (long) Math.ceil(maxRho / rhoStep) + 2;
+		long cellsPerRow = Math.max(1, Math.min(points.length, rhoBins));
+		long cellsPerBand = CELLS_IN_USE / pool.getParallelism();
+		int band = (int) Math.max(1, Math.min(thetaBins, cellsPerBand / cellsPerRow - 2));
+
+		List<Callable<List<Candidate>>> bands = new ArrayList<Callable<List<Candidate>>>();
+		for (int t = 0; t < thetaBins; t += band) {
+			final int from = t, to = Math.min(thetaBins, t + band);
+			bands.add(new Callable<List<Candidate>>() {
+				public List<Candidate> call() {
+					return voteBand(from, to);
+				}
+			});
+		}
+		// keep the maxPeaks strongest peaks of all bands, then sort them by theta and rho
+		PriorityQueue<Candidate> strongest = new PriorityQueue<Candidate>(maxPeaks + 1, BY_VOTES);
+		for (List<Candidate> bandPeaks : invokeAll(bands))
+			for (Candidate c : bandPeaks)
+				offer(strongest, c);
+		List<Candidate> peaks = new ArrayList<Candidate>(strongest);
+		Collections.sort(peaks, BY_CELL);
+
+		// refine the peaks row by row: a row re-computes rho for every point once
+		List<Callable<List<int[]>>> rows = new ArrayList<Callable<List<int[]>>>();
+		for (int start = 0, end; start < peaks.size(); start = end) {
+			int theta = peaks.get(start).theta;
+			for (end = start + 1; end < peaks.size() && peaks.get(end).theta == theta; end++)
+				;
+			final List<Candidate> row = peaks.subList(start, end);
+			rows.add(new Callable<List<int[]>>() {
+				public List<int[]> call() {
+					return refineRow(row);
+				}
+			});
+		}
+		List<int[]> lines = new ArrayList<int[]>();
+		for (List<int[]> refined : invokeAll(rows))
+			lines.addAll(refined);
+		return suppressDuplicates(lines);
+	}
+
+	/**
+	 * Neighbouring peaks of one line may converge to slightly different point
+	 * sets. Taking lines largest first, a line is dropped when more than half
+	 * of its points already belong to a kept line of nearly the same direction
+	 * (lines crossing at an angle may share any number of grid points).
+	 * @param lines point indexes of every refined line
+	 * @return the segments kept, sorted by their endpoints
+	 */
+	private List<Segment> suppressDuplicates(List<int[]> lines) {
+		Collections.sort(lines, new java.util.Comparator<int[]>() {
+			public int compare(int[] a, int[] b) {
+				return b.length - a.length;
+			}
+		});
+		int[][] owners = new int[points.length][];	// kept lines through each point
+		int[] ownerCount = new int[points.length];
+		List<Double> angles = new ArrayList<Double>();	// direction of every kept line
+		double sameDirection = 4 * Math.PI / thetaBins;
+
+		List<Segment> kept = new ArrayList<Segment>();
+		LongIntHashMap shared = new LongIntHashMap(16);	// kept line -> points shared with it
+		for (int[] line : lines) {
+			Segment segment = segment(line);
+			double angle = Math.atan2(segment.last().y() - segment.first().y(),
+					segment.last().x() - segment.first().x());
+			boolean duplicate = false;
+			shared.clear();
+			for (int k = 0; k < line.length && !duplicate; k++) {
+				int i = line[k];
+				for (int o = 0; o < ownerCount[i] && !duplicate; o++) {
+					int id = owners[i][o];
+					double diff = Math.abs(angle - angles.get(id)) % Math.PI;
+					if (Math.min(diff, Math.PI - diff) <= sameDirection)
+						duplicate = 2 * shared.add(id, 1) > line.length;
+				}
+			}
+			if (duplicate)
+				continue;
+			for (int i : line) {
+				if (owners[i] == null)
+					owners[i] = new int[2];
+				else if (ownerCount[i] == owners[i].length)
+					owners[i] = Arrays.copyOf(owners[i], 2 * ownerCount[i]);
+				owners[i][ownerCount[i]++] = kept.size();
+			}
+			angles.add(angle);
+			kept.add(segment);
+		}
+		Collections.sort(kept);
+		return kept;
+	}
+
+	private Segment segment(int[] line) {
+		Point[] collinear = new Point[line.length];
+		for (int k = 0; k < line.length; k++)
+			collinear[k] = points[line[k]];
+		return new Segment(collinear);
+	}
+
+	private <T> List<T> invokeAll(List<Callable<T>> tasks) {
+		List<T> results = new ArrayList<T>(tasks.size());
+		try {
+			for (Future<T> f : pool.invokeAll(tasks))
+				results.add(f.get());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while detecting lines", e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("Line detection failed", e.getCause());
+		}
+		return results;
+	}
+
+	private static final java.util.Comparator<Candidate> BY_VOTES = new java.util.Comparator<Candidate>() {
+		public int compare(Candidate a, Candidate b) {
+			return a.votes - b.votes;
+		}
+	};
+
+	private static final java.util.Comparator<Candidate> BY_CELL = new java.util.Comparator<Candidate>() {
+		public int compare(Candidate a, Candidate b) {
+			return a.theta != b.theta ? a.theta - b.theta : a.rho - b.rho;
+		}
+	};
+
+	/**
+	 * Adds c to a queue of at most maxPeaks candidates, the weakest first,
+	 * dropping the weakest when it overflows
+	 */
+	private void offer(PriorityQueue<Candidate> strongest, Candidate c) {
+		if (strongest.size() == maxPeaks && strongest.peek().votes >= c.votes)
+			return;
+		strongest.add(c);
+		if (strongest.size() > maxPeaks)
+			strongest.remove();
+	}
+
+	/**
+	 * Votes theta rows [from, to) plus one row on each side, so that peaks
+	 * of the band's edge rows see all their neighbours
+	 * @return the maxPeaks strongest peaks of rows [from, to)
+	 */
+	private List<Candidate> voteBand(int from, int to) {
+		int lo = Math.max(0, from - 1), hi = Math.min(thetaBins, to + 1);
+		LongIntHashMap votes = new LongIntHashMap(4096);
+		for (int i = 0; i < xs.length; i++)
+			for (int t = lo; t < hi; t++)
+				votes.add(cell(t, rhoBin(i, t)), 1);
+
+		PriorityQueue<Candidate> peaks = new PriorityQueue<Candidate>(maxPeaks + 1, BY_VOTES);
+		for (int slot = 0; slot < votes.slots(); slot++) {
+			if (!votes.isUsed(slot))
+				continue;
+			int v = votes.valueAt(slot);
+			long key = votes.keyAt(slot);
+			int theta = (int) (key >> 32), rho = (int) key;
+			if (v < minVotes || theta < from || theta >= to)
+				continue;
+
+			// a peak beats every neighbour before it and ties none after it
+			boolean peak = true;
+			for (int dt = -1; dt <= 1 && peak; dt++) {
+				for (int dr = -1; dr <= 1 && peak; dr++) {
+					if (dt == 0 && dr == 0)
+						continue;
+					int w = votes.get(cell(theta + dt, rho + dr), 0);
+					boolean before = dt < 0 || (dt == 0 && dr < 0);
+					peak = before ? v >= w : v > w;
+				}
+			}
+			if (peak)
+				offer(peaks, new Candidate(theta, rho, v));
+		}
+		return new ArrayList<Candidate>(peaks);
+	}
+
+	/**
+	 * Refines the peaks of one theta row against the points
+	 * @param row peaks sharing a theta, sorted by rho
+	 * @return point indexes of every confirmed line
+	 */
+	private List<int[]> refineRow(List<Candidate> row) {
+		int t = row.get(0).theta;
+		int[] rhos = new int[row.size()];
+		for (int k = 0; k < rhos.length; k++)
+			rhos[k] = row.get(k).rho;
+
+		// gather every point whose bin is next to a peak's bin
+		for (int i = 0; i < xs.length; i++) {
+			int r = rhoBin(i, t);
+			int k = Arrays.binarySearch(rhos, r - 1);
+			for (k = k < 0 ? -k - 1 : k; k < rhos.length && rhos[k] <= r + 1; k++)
+				row.get(k).add(i);
+		}
+
+		List<int[]> confirmed = new ArrayList<int[]>();
+		for (Candidate c : row) {
+			int[] line = refine(c);
+			if (line != null)
+				confirmed.add(line);
+		}
+		return confirmed;
+	}
+
+	/**
+	 * Fits a total least-squares line through the candidate's points, then
+	 * re-fits through every point within tolerance of that line, so a line
+	 * split over neighbouring cells comes back whole
+	 * @return indexes of the points within tolerance of the final fit,
+	 *         null if there are too few
+	 */
+	private int[] refine(Candidate c) {
+		int[] members = c.near;
+		int count = c.size;
+		for (int pass = 0; pass < REFINE_PASSES && count >= minPoints; pass++) {
+			double[] line = fit(members, count);
+			members = new int[Math.max(count, 8)];
+			count = 0;
+			for (int i = 0; i < xs.length; i++) {
+				if (Math.abs(xs[i] * line[0] + ys[i] * line[1] - line[2]) > tolerance + EPSILON)
+					continue;
+				if (count == members.length)
+					members = Arrays.copyOf(members, 2 * count);
+				members[count++] = i;
+			}
+		}
+		if (count < minPoints)
+			return null;
+		return Arrays.copyOf(members, count);
+	}
+
+	/**
+	 * Total least-squares line through the given points
+	 * @return unit normal (nx, ny) and offset rho of the line nx x + ny y = rho
+	 */
+	private double[] fit(int[] members, int count) {
+		double mx = 0, my = 0;
+		for (int k = 0; k < count; k++) {
+			mx += xs[members[k]];
+			my += ys[members[k]];
+		}
+		mx /= count;
+		my /= count;
+		double sxx = 0, syy = 0, sxy = 0;
+		for (int k = 0; k < count; k++) {
+			double dx = xs[members[k]] - mx, dy = ys[members[k]] - my;
+			sxx += dx * dx;
+			syy += dy * dy;
+			sxy += dx * dy;
+		}
+		// the line runs along the main axis, its normal is perpendicular to it
+		double along = 0.5 * Math.atan2(2 * sxy, sxx - syy);
+		double nx = -Math.sin(along), ny = Math.cos(along);
+		return new double[] { nx, ny, mx * nx + my * ny };
+	}
+
+	/**
+	 * Prints the approximately collinear segments of the input file
+	 * @param args input file, minPoints, tolerance
+	 */
+	public static void main(String[] args) {
+		int minPoints = Integer.parseInt(args[1]);
+		double tolerance = Double.parseDouble(args[2]);
+		Point[] points = PointFile.load(args[0]).points();
+
+		SegmentWriter writer = new SegmentWriter(System.out, SegmentWriter.Format.TEXT);
+		Point[] buffer = new Point[points.length];
+		for (Segment segment : new HoughDetector(points, minPoints, tolerance).call()) {
+			for (int k = 0; k < segment.size(); k++)
+				buffer[k] = segment.point(k);
+			writer.segment(buffer, segment.size());
+		}
+		writer.flush();
+	}
+}
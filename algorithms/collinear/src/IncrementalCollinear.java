@@ -0,0 +1,256 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac IncrementalCollinear.java
+ * Execution: java IncrementalCollinear input.txt [minPoints]
+ * Dependencies: Point.java Segment.java LongIntHashMap.java LineTable.java stdlib.jar
+ * This is an online version of the Fast search for points that arrive one at
+ * a time. Inserting point p buckets the existing points by their exact slope
+ * key to p in a primitive hash map: every bucket is the complete set of points
+ * on one line through p, so O(N) expected work per insert finds every line p
+ * lands on. Lines that have reached minPoints are kept in a LineTable keyed by
+ * (direction, offset), which gives each segment a stable id: a line growing
+ * from 4 to 5 points is reported as an extension of the same id, not as a
+ * new segment.
+ * NOTE: duplicate points are ignored; memory is O(N + number of segments).
+ ****************************************************************************/
+
+import java.util.Arrays;
+
+public class IncrementalCollinear {
+
+	/**
+	 * Receives the segments that change with an insert. Every segment is
+	 * maximal: it has all the points inserted so far on its line.
+	 */
+	public interface Listener {
+		// a line reached minPoints points and got the given id
+		void segmentAdded(int id, Segment segment);
+
+		// the line with the given id got one more point
+		void segmentExtended(int id, Segment segment);
+	}
+
+	private final int minPoints;		// smallest segment reported
+	private final Listener listener;	// receiver of segment changes
+
+	private Point[] points = new Point[16];	// inserted points
+	private int[] xs = new int[16];		// x coordinates of inserted points
+	private int[] ys = new int[16];		// y coordinates of inserted points
+	private int size;					// number of inserted points
+
+	private final LongIntHashMap groupIds = new LongIntHashMap(16);	// slope key -> group id
+	private int[] groupOf = new int[16];	// group id of each existing point
+	private long[] groupKeys = new long[16];	// slope key of each group
+	private int[] counts = new int[16];		// group sizes, then group offsets
+	private int[] members = new int[16];	// point indexes ordered by group
+
+	private final LineTable lines = new LineTable(16);	// (direction, offset) -> segment id
+	private int[] lineSizes = new int[16];	// points on each segment
+	private int[] lineFirst = new int[16];	// smallest point of each segment
+	private int[] lineLast = new int[16];	// largest point of each segment
+	private int lineCount;				// number of segments
+
+	/**
+	 * @param minPoints smallest number of collinear points reported (at least 3)
+	 * @param listener receiver of segment changes
+	 */
+	public IncrementalCollinear(int minPoints, Listener listener) {
+		if (minPoints < 3)
+			throw new IllegalArgumentException("minPoints must be at least 3");
+		this.minPoints = minPoints;
+		this.listener = listener;
+	}
+
+	/**
+	 * number of points inserted
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * number of segments of at least minPoints points found so far
+	 * @return
+	 */
+	public int segmentCount() {
+		return lineCount;
+	}
+
+	/**
+	 * number of points on the segment with the given id
+	 * @param id
+	 * @return
+	 */
+	public int segmentSize(int id) {
+		checkId(id);
+		return lineSizes[id];
+	}
+
+	/**
+	 * lexicographically smallest endpoint of the segment with the given id
+	 * @param id
+	 * @return
+	 */
+	public Point segmentFirst(int id) {
+		checkId(id);
+		return points[lineFirst[id]];
+	}
+
+	/**
+	 * lexicographically largest endpoint of the segment with the given id
+	 * @param id
+	 * @return
+	 */
+	public Point segmentLast(int id) {
+		checkId(id);
+		return points[lineLast[id]];
+	}
+
+	private void checkId(int id) {
+		if (id < 0 || id >= lineCount)
+			throw new IndexOutOfBoundsException("No segment " + id);
+	}
+
+	/**
+	 * Adds a point, reporting the segments it creates or extends
+	 * @param p
+	 * @return false if p was already inserted
+	 */
+	public boolean insert(Point p) {
+		int x = p.x(), y = p.y();
+		ensureCapacity();
+
+		// bucket every existing point by its slope key to p
+		groupIds.clear();
+		int groups = 0;
+		for (int i = 0; i < size; i++) {
+			long key = Point.slopeKey(xs[i] - x, ys[i] - y);
+			if (key == Point.DEGENERATE_SLOPE)
+				return false;
+			int g = groupIds.putIfAbsent(key, groups);
+			if (g == groups) {
+				groupKeys[groups] = key;
+				counts[groups++] = 0;
+			}
+			groupOf[i] = g;
+			counts[g]++;
+		}
+
+		// keep the groups that make a segment with p, turning sizes into offsets
+		int total = 0;
+		for (int g = 0; g < groups; g++) {
+			int groupSize = counts[g];
+			if (groupSize + 1 < minPoints) {
+				counts[g] = -1;
+				continue;
+			}
+			counts[g] = total;
+			total += groupSize;
+		}
+		for (int i = 0; total > 0 && i < size; i++) {
+			int g = groupOf[i];
+			if (counts[g] >= 0)
+				members[counts[g]++] = i;
+		}
+
+		int index = size++;
+		points[index] = p;
+		xs[index] = x;
+		ys[index] = y;
+
+		// counts[g] now ends group g, which starts where the previous kept group ended
+		for (int g = 0, start = 0; total > 0 && g < groups; g++) {
+			if (counts[g] < 0)
+				continue;
+			int end = counts[g];
+			Point[] collinear = new Point[end - start + 1];
+			collinear[0] = p;
+			int first = index, last = index;
+			for (int k = start; k < end; k++) {
+				int i = members[k];
+				collinear[k - start + 1] = points[i];
+				if (points[i].compareTo(points[first]) < 0)
+					first = i;
+				if (points[i].compareTo(points[last]) > 0)
+					last = i;
+			}
+			start = end;
+
+			long direction = groupKeys[g];
+			int id = lines.putIfAbsent(direction, LineTable.offset(direction, x, y), lineCount);
+			boolean added = id == lineCount;
+			if (added)
+				addLine();
+			lineSizes[id] = collinear.length;
+			lineFirst[id] = first;
+			lineLast[id] = last;
+
+			Segment segment = new Segment(collinear);
+			if (added)
+				listener.segmentAdded(id, segment);
+			else
+				listener.segmentExtended(id, segment);
+		}
+		return true;
+	}
+
+	/**
+	 * Makes room for one more point in the point and scratch arrays
+	 */
+	private void ensureCapacity() {
+		if (size < xs.length)
+			return;
+		int capacity = 2 * xs.length;
+		points = Arrays.copyOf(points, capacity);
+		xs = Arrays.copyOf(xs, capacity);
+		ys = Arrays.copyOf(ys, capacity);
+		groupOf = new int[capacity];
+		groupKeys = new long[capacity];
+		counts = new int[capacity];
+		members = new int[capacity];
+	}
+
+	/**
+	 * Makes room for one more segment
+	 */
+	private void addLine() {
+		if (lineCount == lineSizes.length) {
+			int capacity = 2 * lineSizes.length;
+			lineSizes = Arrays.copyOf(lineSizes, capacity);
+			lineFirst = Arrays.copyOf(lineFirst, capacity);
+			lineLast = Arrays.copyOf(lineLast, capacity);
+		}
+		lineCount++;
+	}
+
+	/**
+	 * Inserts the points of the input file one by one and prints every
+	 * segment change as it happens
+	 * @param args input file and optional minPoints (default 4)
+	 */
+	public static void main(String[] args) {
+		int minPoints = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+		IncrementalCollinear incremental = new IncrementalCollinear(minPoints, new Listener() {
+			public void segmentAdded(int id, Segment segment) {
+				StdOut.println("new      #" + id + ": " + segment);
+			}
+
+			public void segmentExtended(int id, Segment segment) {
+				StdOut.println("extended #" + id + ": " + segment);
+			}
+		});
+
+		In in = new In(args[0]);
+		int N = in.readInt();
+		for (int i = 0; i < N; i++) {
+			if (in.isEmpty())
+				throw new java.util.InputMismatchException("Not enough points provided!\n");
+			int x = in.readInt();
+			int y = in.readInt();
+			incremental.insert(new Point(x, y));
+		}
+		StdOut.println(incremental.segmentCount() + " segments");
+	}
+}
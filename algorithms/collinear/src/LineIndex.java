@@ -0,0 +1,444 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac LineIndex.java
+ * Execution: java LineIndex input [minPoints] [-save index] < queries.txt
+ * Dependencies: Point.java CollinearKernel.java LineTable.java PointFile.java
+ *               stdlib.jar
+ * This is a persistent index of the lines of a point set: built once, it
+ * answers "which points lie on the line through a and b" (or on the segment
+ * from a to b) without running Fast again or scanning every point.
+ * Every line holding at least minPoints points is keyed exactly by its
+ * canonical (direction, offset) pair, as in LineTable. Lines are stored in
+ * compressed sparse rows, all primitive arrays: keys sorted by (direction,
+ * offset), a start offset per line and one member array holding each line's
+ * point indexes in lexicographic point order, which is also their order along
+ * the line. A query binary searches the keys, then, for a segment, the
+ * members of the line: O(log n + k) for k points reported.
+ * The lines are found by CollinearKernel searches split across a fork-join
+ * pool, and the index can be written to disk and loaded without rebuilding.
+ * NOTE: a line with fewer than minPoints points is not indexed, queries on it
+ * report nothing. With minPoints 3, a query through two input points that
+ * reports nothing means no third point is on their line.
+ ****************************************************************************/
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.InputMismatchException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+public class LineIndex {
+	private static final int MAGIC = 0x3158494C;		// "LIX1" read as a little-endian int
+	private static final int TASKS_PER_THREAD = 8;	// split granularity for load balancing
+
+	private final int[] xs, ys;			// point coordinates
+	private final int minPoints;		// smallest line indexed
+	private final long[] directions;	// line directions, sorted with offsets
+	private final long[] offsets;		// line offsets
+	private final int[] starts;			// line i owns members[starts[i]..starts[i + 1])
+	private final int[] members;		// point indexes of every line, in point order
+
+	private LineIndex(int[] xs, int[] ys, int minPoints, long[] directions, long[] offsets,
+			int[] starts, int[] members) {
+		this.xs = xs;
+		this.ys = ys;
+		this.minPoints = minPoints;
+		this.directions = directions;
+		this.offsets = offsets;
+		this.starts = starts;
+		this.members = members;
+	}
+
+	/**
+	 * Indexes the lines of at least 3 points on the common pool
+	 * @param points input points, not modified
+	 * @return
+	 */
+	public static LineIndex build(Point[] points) {
+		return build(points, 3, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * @param points input points, not modified
+	 * @param minPoints smallest number of points on an indexed line (at least 3)
+	 * @param pool pool to run the search on
+	 * @return
+	 */
+	public static LineIndex build(Point[] points, int minPoints, ForkJoinPool pool) {
+		int[] xs = new int[points.length], ys = new int[points.length];
+		for (int i = 0; i < points.length; i++) {
+			xs[i] = points[i].x();
+			ys[i] = points[i].y();
+		}
+		return build(xs, ys, minPoints, pool);
+	}
+
+	/**
+	 * @param xs x coordinates, shared not copied
+	 * @param ys y coordinates, shared not copied
+	 * @param minPoints smallest number of points on an indexed line (at least 3)
+	 * @param pool pool to run the search on
+	 * @return
+	 */
+	public static LineIndex build(int[] xs, int[] ys, int minPoints, ForkJoinPool pool) {
+		if (minPoints < 3)
+			throw new IllegalArgumentException("minPoints must be at least 3");
+		int grain = Math.max(1, xs.length / (pool.getParallelism() * TASKS_PER_THREAD));
+		final Lines found = pool.invoke(new BuildTask(xs, ys, minPoints, 0, xs.length, grain,
+				new ThreadLocal<CollinearKernel>()));
+
+		// order the lines by key, then lay out their members in that order
+		Integer[] order = new Integer[found.count];
+		for (int i = 0; i < order.length; i++)
+			order[i] = i;
+		Arrays.parallelSort(order, new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				return compareKeys(found.directions[a], found.offsets[a],
+						found.directions[b], found.offsets[b]);
+			}
+		});
+		long[] directions = new long[order.length], offsets = new long[order.length];
+		int[] starts = new int[order.length + 1];
+		int[] members = new int[found.size];
+		for (int i = 0; i < order.length; i++) {
+			int line = order[i];
+			directions[i] = found.directions[line];
+			offsets[i] = found.offsets[line];
+			int from = found.starts[line], length = found.starts[line + 1] - from;
+			System.arraycopy(found.members, from, members, starts[i], length);
+			starts[i + 1] = starts[i] + length;
+		}
+		return new LineIndex(xs, ys, minPoints, directions, offsets, starts, members);
+	}
+
+	private static int compareKeys(long direction1, long offset1, long direction2, long offset2) {
+		if (direction1 != direction2)
+			return direction1 < direction2 ? -1 : 1;
+		return offset1 < offset2 ? -1 : (offset1 == offset2 ? 0 : 1);
+	}
+
+	/**
+	 * Growable CSR list of lines found by one task
+	 */
+	private static class Lines {
+		long[] directions = new long[16];
+		long[] offsets = new long[16];
+		int[] starts = new int[17];
+		int[] members = new int[64];
+		int count;		// number of lines
+		int size;		// number of members
+
+		void add(long direction, long offset, int[] indices, int length) {
+			ensureCapacity(count + 1, size + length);
+			System.arraycopy(indices, 0, members, size, length);
+			directions[count] = direction;
+			offsets[count] = offset;
+			size += length;
+			starts[++count] = size;
+		}
+
+		// appends the lines of that after these
+		void addAll(Lines that) {
+			ensureCapacity(count + that.count, size + that.size);
+			System.arraycopy(that.directions, 0, directions, count, that.count);
+			System.arraycopy(that.offsets, 0, offsets, count, that.count);
+			System.arraycopy(that.members, 0, members, size, that.size);
+			for (int i = 1; i <= that.count; i++)
+				starts[count + i] = size + that.starts[i];
+			count += that.count;
+			size += that.size;
+		}
+
+		private void ensureCapacity(int lines, int total) {
+			if (lines >= directions.length) {
+				int capacity = Math.max(lines + 1, 2 * directions.length);
+				directions = Arrays.copyOf(directions, capacity);
+				offsets = Arrays.copyOf(offsets, capacity);
+				starts = Arrays.copyOf(starts, capacity + 1);
+			}
+			if (total > members.length)
+				members = Arrays.copyOf(members, Math.max(total, 2 * members.length));
+		}
+	}
+
+	/**
+	 * Fork-join task over a range of reference point indexes
+	 */
+	private static class BuildTask extends RecursiveTask<Lines> implements CollinearKernel.Visitor {
+		private static final long serialVersionUID = 1L;
+		private final int[] xs, ys;
+		private final int minPoints, lo, hi, grain;
+		private final ThreadLocal<CollinearKernel> kernels;
+		private Lines lines;
+
+		BuildTask(int[] xs, int[] ys, int minPoints, int lo, int hi, int grain,
+				ThreadLocal<CollinearKernel> kernels) {
+			this.xs = xs;
+			this.ys = ys;
+			this.minPoints = minPoints;
+			this.lo = lo;
+			this.hi = hi;
+			this.grain = grain;
+			this.kernels = kernels;
+		}
+
+		@Override
+		protected Lines compute() {
+			if (hi - lo <= grain) {
+				CollinearKernel kernel = kernels.get();
+				if (kernel == null) {
+					kernel = new CollinearKernel(xs, ys, minPoints, CollinearKernel.Grouping.HASH);
+					kernels.set(kernel);
+				}
+				lines = new Lines();
+				for (int ref = lo; ref < hi; ref++)
+					kernel.search(ref, this);
+				return lines;
+			}
+			int mid = (lo + hi) >>> 1;
+			BuildTask left = new BuildTask(xs, ys, minPoints, lo, mid, grain, kernels);
+			BuildTask right = new BuildTask(xs, ys, minPoints, mid, hi, grain, kernels);
+			right.fork();
+			Lines result = left.compute();
+			result.addAll(right.join());
+			return result;
+		}
+
+		// indices[0] is the smallest point of the line, indices[1] the next one
+		public void collinear(int[] indices, int count) {
+			int a = indices[0], b = indices[1];
+			long direction = Point.slopeKey(xs[b] - xs[a], ys[b] - ys[a]);
+			lines.add(direction, LineTable.offset(direction, xs[a], ys[a]), indices, count);
+		}
+	}
+
+	/**
+	 * number of points
+	 * @return
+	 */
+	public int size() {
+		return xs.length;
+	}
+
+	/**
+	 * number of indexed lines
+	 * @return
+	 */
+	public int lineCount() {
+		return directions.length;
+	}
+
+	/**
+	 * smallest number of points on an indexed line
+	 * @return
+	 */
+	public int minPoints() {
+		return minPoints;
+	}
+
+	/**
+	 * Indexes of the points on the line through a and b
+	 * @param a
+	 * @param b a point other than a
+	 * @return point indexes in point order, empty if the line holds fewer
+	 *         than minPoints points
+	 */
+	public int[] onLine(Point a, Point b) {
+		int line = find(a, b);
+		if (line < 0)
+			return new int[0];
+		return Arrays.copyOfRange(members, starts[line], starts[line + 1]);
+	}
+
+	/**
+	 * Indexes of the points on the segment from a to b, endpoints included
+	 * @param a
+	 * @param b a point other than a
+	 * @return point indexes in point order, empty if the line through a and b
+	 *         holds fewer than minPoints points
+	 */
+	public int[] onSegment(Point a, Point b) {
+		int line = find(a, b);
+		if (line < 0)
+			return new int[0];
+		Point first = a.compareTo(b) < 0 ? a : b, last = first == a ? b : a;
+		int from = lowerBound(starts[line], starts[line + 1], first.x(), first.y());
+		int to = lowerBound(from, starts[line + 1], last.x(), last.y());
+		if (to < starts[line + 1] && xs[members[to]] == last.x() && ys[members[to]] == last.y())
+			to++;
+		return Arrays.copyOfRange(members, from, to);
+	}
+
+	/**
+	 * Position of the line through a and b, or -1 when it is not indexed
+	 */
+	private int find(Point a, Point b) {
+		long direction = a.slopeKey(b);
+		if (direction == Point.DEGENERATE_SLOPE)
+			throw new IllegalArgumentException("a and b are the same point " + a);
+		long offset = LineTable.offset(direction, a.x(), a.y());
+		int lo = 0, hi = directions.length - 1;
+		while (lo <= hi) {
+			int mid = (lo + hi) >>> 1;
+			int cmp = compareKeys(direction, offset, directions[mid], offsets[mid]);
+			if (cmp < 0)
+				hi = mid - 1;
+			else if (cmp > 0)
+				lo = mid + 1;
+			else
+				return mid;
+		}
+		return -1;
+	}
+
+	/**
+	 * First position in members[lo..hi) whose point is not smaller than (x, y)
+	 */
+	private int lowerBound(int lo, int hi, int x, int y) {
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			int i = members[mid];
+			if (ys[i] < y || (ys[i] == y && xs[i] < x))
+				lo = mid + 1;
+			else
+				hi = mid;
+		}
+		return lo;
+	}
+
+	/**
+	 * Writes the index, points included, as packed little-endian data
+	 * @param out
+	 * @throws IOException
+	 */
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(Integer.reverseBytes(MAGIC));
+		data.writeInt(Integer.reverseBytes(xs.length));
+		data.writeInt(Integer.reverseBytes(minPoints));
+		data.writeInt(Integer.reverseBytes(directions.length));
+		data.writeInt(Integer.reverseBytes(members.length));
+		for (int i = 0; i < xs.length; i++) {
+			data.writeInt(Integer.reverseBytes(xs[i]));
+			data.writeInt(Integer.reverseBytes(ys[i]));
+		}
+		for (int i = 0; i < directions.length; i++) {
+			data.writeLong(Long.reverseBytes(directions[i]));
+			data.writeLong(Long.reverseBytes(offsets[i]));
+		}
+		for (int start : starts)
+			data.writeInt(Integer.reverseBytes(start));
+		for (int member : members)
+			data.writeInt(Integer.reverseBytes(member));
+		data.flush();
+	}
+
+	/**
+	 * Is the file at path an index written by write()?
+	 * @param path
+	 * @return
+	 */
+	public static boolean isIndexFile(String path) {
+		try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+			if (channel.size() < 4)
+				return false;
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, 4);
+			return buffer.order(ByteOrder.LITTLE_ENDIAN).getInt(0) == MAGIC;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Loads an index written by write()
+	 * @param path
+	 * @return
+	 */
+	public static LineIndex load(String path) {
+		try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+			if (channel.size() < 20 || buffer.getInt() != MAGIC)
+				throw new InputMismatchException("Not a line index: " + path);
+			int N = buffer.getInt(), minPoints = buffer.getInt();
+			int lines = buffer.getInt(), size = buffer.getInt();
+			long expected = 20 + 8L * N + 16L * lines + 4L * (lines + 1) + 4L * size;
+			if (N < 0 || lines < 0 || size < 0 || channel.size() != expected)
+				throw new InputMismatchException("Truncated line index: " + path);
+
+			int[] xs = new int[N], ys = new int[N];
+			for (int i = 0; i < N; i++) {
+				xs[i] = buffer.getInt();
+				ys[i] = buffer.getInt();
+			}
+			long[] directions = new long[lines], offsets = new long[lines];
+			for (int i = 0; i < lines; i++) {
+				directions[i] = buffer.getLong();
+				offsets[i] = buffer.getLong();
+			}
+			int[] starts = new int[lines + 1], members = new int[size];
+			buffer.asIntBuffer().get(starts);
+			buffer.position(buffer.position() + 4 * starts.length);
+			buffer.asIntBuffer().get(members);
+			return new LineIndex(xs, ys, minPoints, directions, offsets, starts, members);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Builds or loads an index, then answers queries "x1 y1 x2 y2" from
+	 * standard input with the points on the segment between them
+	 * @param args point file or saved index, optional minPoints (default 3),
+	 *             -save file to write the index
+	 */
+	public static void main(String[] args) throws IOException {
+		int minPoints = 3;
+		String save = null;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("-save"))
+				save = args[++i];
+			else
+				minPoints = Integer.parseInt(args[i]);
+		}
+
+		LineIndex index;
+		if (isIndexFile(args[0]))
+			index = load(args[0]);
+		else {
+			PointFile file = PointFile.load(args[0]);
+			index = build(file.xs(), file.ys(), minPoints, ForkJoinPool.commonPool());
+		}
+		StdOut.println(index.lineCount() + " lines of at least " + index.minPoints() + " points");
+		if (save != null) {
+			try (OutputStream out = new BufferedOutputStream(
+					Files.newOutputStream(Paths.get(save)), 1 << 16)) {
+				index.write(out);
+			}
+		}
+
+		while (!StdIn.isEmpty()) {
+			Point a = new Point(StdIn.readInt(), StdIn.readInt());
+			Point b = new Point(StdIn.readInt(), StdIn.readInt());
+			StringBuilder line = new StringBuilder();
+			for (int i : index.onSegment(a, b)) {
+				if (line.length() > 0)
+					line.append(" -> ");
+				line.append(new Point(index.xs[i], index.ys[i]));
+			}
+			StdOut.println(line);
+		}
+	}
+}
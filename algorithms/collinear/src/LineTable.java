@@ -0,0 +1,113 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac LineTable.java
+ * Dependencies: Point.java
+ * This is a primitive hash map from lines to int, open addressing with linear
+ * probing. A line is keyed exactly by two longs: its direction, the slope key
+ * of Point.slopeKey(), and its offset dx * y - dy * x, which is the same for
+ * every point (x, y) on the line.
+ ****************************************************************************/
+
+public class LineTable {
+	private long[] directions;		// slot direction keys
+	private long[] offsets;			// slot offsets
+	private int[] values;			// slot values
+	private boolean[] used;			// is the slot taken
+	private int size;				// number of entries
+	private int mask;				// capacity - 1, capacity is a power of 2
+
+	/**
+	 * @param expectedSize number of lines expected, the table grows past it
+	 */
+	public LineTable(int expectedSize) {
+		int capacity = 4;
+		while (capacity < 2 * expectedSize)
+			capacity <<= 1;
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		directions = new long[capacity];
+		offsets = new long[capacity];
+		values = new int[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Offset of the line with the given direction through (x, y)
+	 * @param direction slope key, neither degenerate nor unreduced
+	 * @param x
+	 * @param y
+	 * @return
+	 */
+	public static long offset(long direction, int x, int y) {
+		long dy = direction >> 32;
+		long dx = (int) direction;
+		return dx * y - dy * x;
+	}
+
+	private int slot(long direction, long offset) {
+		long h = (direction * 0x9E3779B97F4A7C15L) ^ (offset * 0xC2B2AE3D27D4EB4FL);
+		int i = (int) (h ^ (h >>> 32)) & mask;
+		while (used[i] && (directions[i] != direction || offsets[i] != offset))
+			i = (i + 1) & mask;
+		return i;
+	}
+
+	/**
+	 * number of lines
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @param direction
+	 * @param offset
+	 * @param missing value returned for an unknown line
+	 * @return the value mapped to the line or missing
+	 */
+	public int get(long direction, long offset, int missing) {
+		int i = slot(direction, offset);
+		return used[i] ? values[i] : missing;
+	}
+
+	/**
+	 * Maps the line to value unless it is already present
+	 * @param direction
+	 * @param offset
+	 * @param value
+	 * @return the value mapped to the line after the call
+	 */
+	public int putIfAbsent(long direction, long offset, int value) {
+		int i = slot(direction, offset);
+		if (used[i])
+			return values[i];
+		directions[i] = direction;
+		offsets[i] = offset;
+		values[i] = value;
+		used[i] = true;
+		if (++size > (mask + 1) / 2)
+			rehash();
+		return value;
+	}
+
+	private void rehash() {
+		long[] oldDirections = directions, oldOffsets = offsets;
+		int[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(2 * oldUsed.length);
+		for (int j = 0; j < oldUsed.length; j++) {
+			if (!oldUsed[j])
+				continue;
+			int i = slot(oldDirections[j], oldOffsets[j]);
+			directions[i] = oldDirections[j];
+			offsets[i] = oldOffsets[j];
+			values[i] = oldValues[j];
+			used[i] = true;
+		}
+	}
+}
@@ -0,0 +1,178 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac LongIntHashMap.java
+ * Dependencies: none
+ * This is a primitive long -> int hash map using open addressing with linear
+ * probing, so no key or value is ever boxed. Every slot carries the generation
+ * it was written in: clear() just starts a new generation, which makes the map
+ * cheap to reuse once per reference point.
+ ****************************************************************************/
+
+public class LongIntHashMap {
+	private long[] keys;			// slot keys
+	private int[] values;			// slot values
+	private int[] stamps;			// generation a slot was written in
+	private int generation = 1;		// current generation, older slots are free
+	private int size;				// number of live entries
+	private int mask;				// capacity - 1, capacity is a power of 2
+
+	/**
+	 * @param expectedSize number of entries expected, the map grows past it
+	 */
+	public LongIntHashMap(int expectedSize) {
+		int capacity = 4;
+		while (capacity < 2 * expectedSize)
+			capacity <<= 1;
+		allocate(capacity);
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new int[capacity];
+		stamps = new int[capacity];
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Slot holding key, or the free slot where it belongs
+	 */
+	private int slot(long key) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		int i = (int) (h ^ (h >>> 32)) & mask;
+		while (stamps[i] == generation && keys[i] != key)
+			i = (i + 1) & mask;
+		return i;
+	}
+
+	/**
+	 * number of entries
+	 * @return
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * removes all entries in O(1)
+	 */
+	public void clear() {
+		size = 0;
+		if (++generation == 0) {			// stamps wrapped around, wipe them
+			java.util.Arrays.fill(stamps, 0);
+			generation = 1;
+		}
+	}
+
+	/**
+	 * @param key
+	 * @param missing value returned when key is absent
+	 * @return the value mapped to key or missing
+	 */
+	public int get(long key, int missing) {
+		int i = slot(key);
+		return stamps[i] == generation ? values[i] : missing;
+	}
+
+	/**
+	 * Maps key to value, replacing any previous value
+	 * @param key
+	 * @param value
+	 */
+	public void put(long key, int value) {
+		int i = slot(key);
+		if (stamps[i] != generation) {
+			insert(i, key, value);
+			return;
+		}
+		values[i] = value;
+	}
+
+	/**
+	 * Maps key to value unless key is already present
+	 * @param key
+	 * @param value
+	 * @return the value mapped to key after the call
+	 */
+	public int putIfAbsent(long key, int value) {
+		int i = slot(key);
+		if (stamps[i] == generation)
+			return values[i];
+		insert(i, key, value);
+		return value;
+	}
+
+	/**
+	 * Adds delta to the value mapped to key, an absent key counting as 0
+	 * @param key
+	 * @param delta
+	 * @return the value mapped to key after the call
+	 */
+	public int add(long key, int delta) {
+		int i = slot(key);
+		if (stamps[i] == generation)
+			return values[i] += delta;
+		insert(i, key, delta);
+		return delta;
+	}
+
+	/**
+	 * Number of slots, for iterating with isUsed()/keyAt()/valueAt()
+	 * @return
+	 */
+	public int slots() {
+		return keys.length;
+	}
+
+	/**
+	 * @param slot
+	 * @return does the slot hold an entry
+	 */
+	public boolean isUsed(int slot) {
+		return stamps[slot] == generation;
+	}
+
+	/**
+	 * @param slot a used slot
+	 * @return key of the entry in slot
+	 */
+	public long keyAt(int slot) {
+		return keys[slot];
+	}
+
+	/**
+	 * @param slot a used slot
+	 * @return value of the entry in slot
+	 */
+	public int valueAt(int slot) {
+		return values[slot];
+	}
+
+	private void insert(int i, long key, int value) {
+		keys[i] = key;
+		values[i] = value;
+		stamps[i] = generation;
+		if (++size > (mask + 1) / 2)
+			rehash();
+	}
+
+	/**
+	 * Doubles the capacity, keeping the live entries only
+	 */
+	private void rehash() {
+		long[] oldKeys = keys;
+		int[] oldValues = values;
+		int[] oldStamps = stamps;
+		int oldGeneration = generation;
+		allocate(2 * oldKeys.length);
+		generation = 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldStamps[j] != oldGeneration)
+				continue;
+			int i = slot(oldKeys[j]);
+			keys[i] = oldKeys[j];
+			values[i] = oldValues[j];
+			stamps[i] = generation;
+		}
+	}
+}
@@ -4,6 +4,8 @@
  * Compilation:  javac Point.java
  * Dependencies: StdDraw.java
  * Description: A data type for points in the plane.
+ * Slopes are also available as exact keys: the reduced (dy, dx) pair packed
+ * into a long, valid while coordinate differences fit in an int.
  *************************************************************************/
 
 import java.util.Comparator;
@@ -13,18 +15,21 @@ public class Point implements Comparable<Point> {
 	// compare points by slope
 	public final Comparator<Point> SLOPE_ORDER = new SlopeOrder();
 
+	// slope key of a point to itself, sorts before every other slope
+	public static final long DEGENERATE_SLOPE = Long.MIN_VALUE;
+	// slope key of a vertical line, sorts after every other slope
+	public static final long VERTICAL_SLOPE = 1L << 32;
+	// slope key of a horizontal line
+	public static final long HORIZONTAL_SLOPE = 1L;
+
 	private final int x; // x coordinate
 	private final int y; // y coordinate
 
 	// Comparator implementation to use with Java system sort.
+	// Compares exact slope keys, each computed once per call.
 	private class SlopeOrder implements Comparator<Point> {
 		public int compare(Point o1, Point o2) {
-			if (slopeTo(o1) - slopeTo(o2) < 0)
-				return -1;
-			else if (slopeTo(o1) - slopeTo(o2) > 0)
-				return 1;
-			else
-				return 0;
+			return compareSlopeKeys(slopeKey(o1), slopeKey(o2));
 		}
 	}
 
@@ -35,6 +40,16 @@ public class Point implements Comparable<Point> {
 		this.y = y;
 	}
 
+	// x coordinate
+	public int x() {
+		return x;
+	}
+
+	// y coordinate
+	public int y() {
+		return y;
+	}
+
 	// plot this point to standard drawing
 	public void draw() {
 		/* DO NOT MODIFY */
@@ -59,6 +74,46 @@ public class Point implements Comparable<Point> {
 			return (double) (that.y - this.y) / (that.x - this.x);
 	}
 
+	// exact slope between this point and that point, see slopeKey(dx, dy)
+	public long slopeKey(Point that) {
+		return slopeKey(that.x - this.x, that.y - this.y);
+	}
+
+	// Exact slope of the vector (dx, dy) as a long: dy and dx divided by their
+	// gcd, signs normalized so that dx > 0 (dx == 0 means vertical), then packed
+	// as dy in the high and dx in the low 32 bits. Equal keys mean equal slopes.
+	public static long slopeKey(int dx, int dy) {
+		if (dx == 0)
+			return dy == 0 ? DEGENERATE_SLOPE : VERTICAL_SLOPE;
+		if (dy == 0)
+			return HORIZONTAL_SLOPE;
+		if (dx < 0) {
+			dx = -dx;
+			dy = -dy;
+		}
+		int a = dx, b = dy < 0 ? -dy : dy;
+		while (b != 0) {
+			int t = a % b;
+			a = b;
+			b = t;
+		}
+		return ((long) (dy / a) << 32) | (dx / a);
+	}
+
+	// compare two slope keys in the same order as slopeTo() values
+	public static int compareSlopeKeys(long a, long b) {
+		if (a == b)
+			return 0;
+		if (a == DEGENERATE_SLOPE || b == VERTICAL_SLOPE)
+			return -1;
+		if (b == DEGENERATE_SLOPE || a == VERTICAL_SLOPE)
+			return 1;
+		// dx > 0 on both sides, so dya / dxa < dyb / dxb <=> dya * dxb < dyb * dxa
+		long left = (a >> 32) * (int) b;
+		long right = (b >> 32) * (int) a;
+		return left < right ? -1 : (left > right ? 1 : 0);
+	}
+
 	// is this point lexicographically smaller than that one?
 	// comparing y-coordinates and breaking ties by x-coordinates
 	// This is a Comparable Interface contract.
@@ -69,6 +124,21 @@ public class Point implements Comparable<Point> {
 			return this.y - that.y;
 	}
 
+	// two points are equal when their coordinates are
+	public boolean equals(Object other) {
+		if (other == this)
+			return true;
+		if (other == null || other.getClass() != this.getClass())
+			return false;
+		Point that = (Point) other;
+		return this.x == that.x && this.y == that.y;
+	}
+
+	// hash consistent with equals()
+	public int hashCode() {
+		return 31 * x + y;
+	}
+
 	// return string representation of this point
 	public String toString() {
 		/* DO NOT MODIFY */
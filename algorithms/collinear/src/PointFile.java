@@ -0,0 +1,273 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac PointFile.java
+ * Execution: java PointFile input output [-text]
+ * Dependencies: Point.java
+ * This is a fast loader for point files, replacing In.readInt() which scans
+ * through a Scanner and allocates a String per token. Two formats are read:
+ * - text, the assignment format: N followed by N pairs of integer x, y. The
+ *   file is memory-mapped and ints are parsed straight from its bytes;
+ * - binary, packed little-endian: the magic "PTI1", int N, int bounds
+ *   xmin, ymin, xmax, ymax, then N pairs of int x, y.
+ * load() tells the two apart by the magic. Coordinates come back as
+ * struct-of-arrays int[] xs, ys, which is what CollinearKernel takes, or as
+ * a Point[]. The main converts a file from one format to the other.
+ * NOTE: files larger than 2GB are mapped one window at a time.
+ ****************************************************************************/
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.InputMismatchException;
+
+public final class PointFile {
+	private static final int MAGIC = 0x31495450;		// "PTI1" read as a little-endian int
+	private static final int HEADER_BYTES = 24;			// magic, N and the four bounds
+	private static final long WINDOW = 1L << 30;		// bytes mapped at a time
+
+	private final int[] xs;		// x coordinates
+	private final int[] ys;		// y coordinates
+
+	private PointFile(int[] xs, int[] ys) {
+		this.xs = xs;
+		this.ys = ys;
+	}
+
+	/**
+	 * Reads a text or binary point file
+	 * @param path
+	 * @return
+	 */
+	public static PointFile load(String path) {
+		try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+			Scanner scanner = new Scanner(channel);
+			if (channel.size() >= HEADER_BYTES && scanner.peekInt() == MAGIC)
+				return readBinary(scanner);
+			return readText(scanner);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static PointFile readText(Scanner scanner) throws IOException {
+		int N = scanner.nextInt();
+		if (N < 0)
+			throw new InputMismatchException("Negative number of points " + N);
+		int[] xs = new int[N], ys = new int[N];
+		for (int i = 0; i < N; i++) {
+			xs[i] = scanner.nextInt();
+			ys[i] = scanner.nextInt();
+		}
+		return new PointFile(xs, ys);
+	}
+
+	private static PointFile readBinary(Scanner scanner) throws IOException {
+		scanner.readInt();		// magic
+		int N = scanner.readInt();
+		if (N < 0)
+			throw new InputMismatchException("Negative number of points " + N);
+		for (int k = 0; k < 4; k++)
+			scanner.readInt();		// bounds, recomputed on write
+		int[] xs = new int[N], ys = new int[N];
+		for (int i = 0; i < N; i++) {
+			xs[i] = scanner.readInt();
+			ys[i] = scanner.readInt();
+		}
+		return new PointFile(xs, ys);
+	}
+
+	/**
+	 * number of points
+	 * @return
+	 */
+	public int size() {
+		return xs.length;
+	}
+
+	/**
+	 * x coordinates, shared with this file: do not modify
+	 * @return
+	 */
+	public int[] xs() {
+		return xs;
+	}
+
+	/**
+	 * y coordinates, shared with this file: do not modify
+	 * @return
+	 */
+	public int[] ys() {
+		return ys;
+	}
+
+	/**
+	 * A new array with the points in file order
+	 * @return
+	 */
+	public Point[] points() {
+		Point[] points = new Point[xs.length];
+		for (int i = 0; i < points.length; i++)
+			points[i] = new Point(xs[i], ys[i]);
+		return points;
+	}
+
+	/**
+	 * Writes the points in the text format
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeText(OutputStream out) throws IOException {
+		StringBuilder line = new StringBuilder(32);
+		line.append(xs.length).append('\n');
+		out.write(line.toString().getBytes("US-ASCII"));
+		for (int i = 0; i < xs.length; i++) {
+			line.setLength(0);
+			line.append(xs[i]).append(' ').append(ys[i]).append('\n');
+			out.write(line.toString().getBytes("US-ASCII"));
+		}
+		out.flush();
+	}
+
+	/**
+	 * Writes the points in the binary format
+	 * @param out
+	 * @throws IOException
+	 */
+	public void writeBinary(OutputStream out) throws IOException {
+		int xmin = Integer.MAX_VALUE, ymin = Integer.MAX_VALUE;
+		int xmax = Integer.MIN_VALUE, ymax = Integer.MIN_VALUE;
+		for (int i = 0; i < xs.length; i++) {
+			xmin = Math.min(xmin, xs[i]);
+			xmax = Math.max(xmax, xs[i]);
+			ymin = Math.min(ymin, ys[i]);
+			ymax = Math.max(ymax, ys[i]);
+		}
+		if (xs.length == 0)
+			xmin = ymin = xmax = ymax = 0;
+
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(Integer.reverseBytes(MAGIC));
+		data.writeInt(Integer.reverseBytes(xs.length));
+		data.writeInt(Integer.reverseBytes(xmin));
+		data.writeInt(Integer.reverseBytes(ymin));
+		data.writeInt(Integer.reverseBytes(xmax));
+		data.writeInt(Integer.reverseBytes(ymax));
+		for (int i = 0; i < xs.length; i++) {
+			data.writeInt(Integer.reverseBytes(xs[i]));
+			data.writeInt(Integer.reverseBytes(ys[i]));
+		}
+		data.flush();
+	}
+
+	/**
+	 * Sequential reader over a memory-mapped file, remapping the next window
+	 * when the current one runs out
+	 */
+	private static class Scanner {
+		private final FileChannel channel;
+		private final long length;			// file size in bytes
+		private MappedByteBuffer buffer;	// current window
+		private long windowStart;			// file position of the window
+
+		Scanner(FileChannel channel) throws IOException {
+			this.channel = channel;
+			this.length = channel.size();
+			map(0);
+		}
+
+		private void map(long position) throws IOException {
+			windowStart = position;
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+					Math.min(WINDOW, length - position));
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		/**
+		 * next byte, or -1 at the end of the file
+		 */
+		private int next() throws IOException {
+			if (!buffer.hasRemaining()) {
+				long position = windowStart + buffer.limit();
+				if (position >= length)
+					return -1;
+				map(position);
+			}
+			return buffer.get();
+		}
+
+		int peekInt() {
+			return buffer.getInt(0);
+		}
+
+		int readInt() throws IOException {
+			if (buffer.remaining() >= 4)
+				return buffer.getInt();
+			int value = 0;		// straddles two windows
+			for (int k = 0; k < 4; k++) {
+				int b = next();
+				if (b < 0)
+					throw new InputMismatchException("Not enough points provided!\n");
+				value |= (b & 0xFF) << (8 * k);
+			}
+			return value;
+		}
+
+		/**
+		 * Parses the next whitespace separated decimal int
+		 */
+		int nextInt() throws IOException {
+			int b = next();
+			while (b == ' ' || b == '\n' || b == '\r' || b == '\t')
+				b = next();
+			if (b < 0)
+				throw new InputMismatchException("Not enough points provided!\n");
+			boolean negative = b == '-';
+			if (negative || b == '+')
+				b = next();
+			if (b < '0' || b > '9')
+				throw new InputMismatchException("Not an integer at byte " + position());
+			long value = 0;		// accumulated as a negative number to reach Integer.MIN_VALUE
+			do {
+				value = 10 * value - (b - '0');
+				if (value < Integer.MIN_VALUE)
+					throw new InputMismatchException("Integer overflow at byte " + position());
+				b = next();
+			} while (b >= '0' && b <= '9');
+			if (b >= 0 && b != ' ' && b != '\n' && b != '\r' && b != '\t')
+				throw new InputMismatchException("Not an integer at byte " + position());
+			if (!negative && value == Integer.MIN_VALUE)
+				throw new InputMismatchException("Integer overflow at byte " + position());
+			return (int) (negative ? value : -value);
+		}
+
+		private long position() {
+			return windowStart + buffer.position();
+		}
+	}
+
+	/**
+	 * Converts a point file to binary, or to text with -text
+	 * @param args input file, output file and optional -text
+	 */
+	public static void main(String[] args) throws IOException {
+		boolean text = args.length > 2 && args[2].equals("-text");
+		PointFile file = load(args[0]);
+		Path output = Paths.get(args[1]);
+		try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 1 << 16)) {
+			if (text)
+				file.writeText(out);
+			else
+				file.writeBinary(out);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+/*************************************************************************
+ * Name: George Titarenko
+ * Date: 10/19/2026
+ * Compilation:  javac Segment.java
+ * Dependencies: Point.java StdDraw.java
+ * Description: An immutable maximal line segment of collinear points.
+ * The points are kept in lexicographic order, so a segment is identified
+ * by its two endpoints no matter in which order the points were found.
+ *************************************************************************/
+
+import java.util.Arrays;
+
+public class Segment implements Comparable<Segment> {
+
+	private final Point[] points; // collinear points, lexicographically sorted
+
+	// create the segment through the given collinear points (in any order)
+	public Segment(Point[] collinear) {
+		if (collinear.length < 2)
+			throw new IllegalArgumentException("A segment needs at least 2 points");
+		this.points = collinear.clone();
+		Arrays.sort(this.points);
+	}
+
+	// number of points on the segment
+	public int size() {
+		return points.length;
+	}
+
+	// i-th point in lexicographic order
+	public Point point(int i) {
+		return points[i];
+	}
+
+	// lexicographically smallest endpoint
+	public Point first() {
+		return points[0];
+	}
+
+	// lexicographically largest endpoint
+	public Point last() {
+		return points[points.length - 1];
+	}
+
+	// draw the segment from end to end to standard drawing
+	public void draw() {
+		first().drawTo(last());
+	}
+
+	// order by the first endpoint, breaking ties by the last one
+	public int compareTo(Segment that) {
+		int cmp = this.first().compareTo(that.first());
+		if (cmp != 0)
+			return cmp;
+		return this.last().compareTo(that.last());
+	}
+
+	// two maximal segments with the same endpoints are the same segment
+	public boolean equals(Object other) {
+		if (other == this)
+			return true;
+		if (other == null || other.getClass() != this.getClass())
+			return false;
+		Segment that = (Segment) other;
+		return this.first().equals(that.first()) && this.last().equals(that.last());
+	}
+
+	public int hashCode() {
+		return 31 * first().hashCode() + last().hashCode();
+	}
+
+	// "p1 -> p2 -> ... -> pn", the format Brute and Fast print
+	public String toString() {
+		StringBuilder s = new StringBuilder();
+		for (int i = 0; i < points.length; i++) {
+			if (i != 0)
+				s.append(" -> ");
+			s.append(points[i].toString());
+		}
+		return s.toString();
+	}
+}
@@ -0,0 +1,62 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac SegmentRenderer.java
+ * Dependencies: Point.java SegmentSink.java StdDraw.java
+ * This is a SegmentSink that only records segment endpoints. render() then
+ * draws the input points and all recorded segments in one batch, with a
+ * single StdDraw.show() at the end instead of one repaint per point.
+ ****************************************************************************/
+
+public class SegmentRenderer implements SegmentSink {
+	private final Point[] points;		// input points drawn as dots
+	private final int scale;			// drawing covers [0, scale] on both axes
+	private int[] ends = new int[64];	// x0, y0, x1, y1 of every recorded segment
+	private int size;					// ints used in ends
+
+	/**
+	 * Renderer for the given input, in the 0..32768 space Brute and Fast use
+	 * @param points
+	 */
+	public SegmentRenderer(Point[] points) {
+		this(points, 32768);
+	}
+
+	/**
+	 * @param points input points drawn as dots
+	 * @param scale both axes run from 0 to scale
+	 */
+	public SegmentRenderer(Point[] points, int scale) {
+		this.points = points.clone();
+		this.scale = scale;
+	}
+
+	public void segment(Point[] collinear, int count) {
+		if (size + 4 > ends.length)
+			ends = java.util.Arrays.copyOf(ends, 2 * ends.length);
+		ends[size++] = collinear[0].x();
+		ends[size++] = collinear[0].y();
+		ends[size++] = collinear[count - 1].x();
+		ends[size++] = collinear[count - 1].y();
+	}
+
+	/**
+	 * Draws the points and the recorded segments, then shows them all at once
+	 */
+	public void render() {
+		// rescale coordinates and turn on animation mode
+		StdDraw.setXscale(0, scale);
+		StdDraw.setYscale(0, scale);
+		StdDraw.show(0);
+
+		StdDraw.setPenRadius(0.01); // make the points a bit larger
+		for (Point p : points)
+			p.draw();
+		StdDraw.setPenRadius();
+		for (int i = 0; i < size; i += 4)
+			StdDraw.line(ends[i], ends[i + 1], ends[i + 2], ends[i + 3]);
+
+		// display to screen all at once
+		StdDraw.show();
+	}
+}
@@ -0,0 +1,30 @@
+/*************************************************************************
+ * Name: George Titarenko
+ * Date: 10/19/2026
+ * Compilation:  javac SegmentSink.java
+ * Dependencies: Point.java
+ * Description: Receiver of the collinear segments found by CollinearFinder.
+ * points[0..count) are the points of one maximal segment in lexicographic
+ * order. The array may be a reused buffer: it is valid only during the call.
+ *************************************************************************/
+
+public interface SegmentSink {
+
+	// one maximal segment of count collinear points
+	void segment(Point[] points, int count);
+
+	// sink forwarding every segment to two others
+	public static class Tee implements SegmentSink {
+		private final SegmentSink first, second;
+
+		public Tee(SegmentSink first, SegmentSink second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		public void segment(Point[] points, int count) {
+			first.segment(points, count);
+			second.segment(points, count);
+		}
+	}
+}
@@ -0,0 +1,169 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac SegmentWriter.java
+ * Dependencies: Point.java SegmentSink.java
+ * This is a buffered SegmentSink writing segments to an OutputStream. Numbers
+ * are formatted straight into a byte buffer, so no String is built per
+ * segment or per point. Three formats, one segment per record:
+ * TEXT    (x0, y0) -> (x1, y1) -> ...       the format Brute and Fast print
+ * CSV     count,x0,y0,x1,y1,...
+ * BINARY  "SEG1" once, then per segment: count, x0, y0, x1, y1, ... as
+ *         little-endian 32-bit ints
+ * NOTE: close() (or flush()) must be called, output stays buffered until then.
+ ****************************************************************************/
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+public class SegmentWriter implements SegmentSink, Flushable, Closeable {
+	private static final byte[] BINARY_MAGIC = { 'S', 'E', 'G', '1' };
+	private static final byte[] ARROW = { ' ', '-', '>', ' ' };
+
+	/**
+	 * Output record format
+	 */
+	public enum Format {
+		TEXT, CSV, BINARY
+	}
+
+	private final OutputStream out;		// destination
+	private final Format format;		// record format
+	private byte[] buffer = new byte[1 << 16];	// pending output
+	private int position;				// bytes pending in buffer
+	private long segments;				// segments written so far
+
+	/**
+	 * @param out destination, closed by close()
+	 * @param format
+	 */
+	public SegmentWriter(OutputStream out, Format format) {
+		this.out = out;
+		this.format = format;
+		if (format == Format.BINARY)
+			for (byte b : BINARY_MAGIC)
+				buffer[position++] = b;
+	}
+
+	/**
+	 * number of segments written so far
+	 * @return
+	 */
+	public long segments() {
+		return segments;
+	}
+
+	public void segment(Point[] points, int count) {
+		// worst case per point: " -> (" two 11-char ints ", " ")", 30 bytes of TEXT;
+		// 16 covers CSV's leading count and the newline
+		reserve(16 + 30 * count);
+		switch (format) {
+		case TEXT:
+			for (int k = 0; k < count; k++) {
+				if (k != 0)
+					put(ARROW);
+				buffer[position++] = '(';
+				putDecimal(points[k].x());
+				buffer[position++] = ',';
+				buffer[position++] = ' ';
+				putDecimal(points[k].y());
+				buffer[position++] = ')';
+			}
+			buffer[position++] = '\n';
+			break;
+		case CSV:
+			putDecimal(count);
+			for (int k = 0; k < count; k++) {
+				buffer[position++] = ',';
+				putDecimal(points[k].x());
+				buffer[position++] = ',';
+				putDecimal(points[k].y());
+			}
+			buffer[position++] = '\n';
+			break;
+		case BINARY:
+			putLittleEndian(count);
+			for (int k = 0; k < count; k++) {
+				putLittleEndian(points[k].x());
+				putLittleEndian(points[k].y());
+			}
+			break;
+		}
+		segments++;
+	}
+
+	/**
+	 * Makes room for n more bytes, flushing or growing the buffer
+	 */
+	private void reserve(int n) {
+		if (position + n <= buffer.length)
+			return;
+		writeBuffer();
+		if (n > buffer.length)
+			buffer = new byte[Integer.highestOneBit(n) << 1];
+	}
+
+	private void put(byte[] bytes) {
+		System.arraycopy(bytes, 0, buffer, position, bytes.length);
+		position += bytes.length;
+	}
+
+	private void putDecimal(int value) {
+		long v = value;				// long, so that -Integer.MIN_VALUE fits
+		if (v < 0) {
+			buffer[position++] = '-';
+			v = -v;
+		}
+		int digits = 1;
+		for (long p = 10; p <= v; p *= 10)
+			digits++;
+		for (int i = position + digits - 1; i >= position; i--) {
+			buffer[i] = (byte) ('0' + v % 10);
+			v /= 10;
+		}
+		position += digits;
+	}
+
+	private void putLittleEndian(int value) {
+		buffer[position++] = (byte) value;
+		buffer[position++] = (byte) (value >>> 8);
+		buffer[position++] = (byte) (value >>> 16);
+		buffer[position++] = (byte) (value >>> 24);
+	}
+
+	private void writeBuffer() {
+		try {
+			out.write(buffer, 0, position);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		position = 0;
+	}
+
+	/**
+	 * Writes out everything buffered so far
+	 */
+	public void flush() {
+		writeBuffer();
+		try {
+			out.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Flushes and closes the destination stream
+	 */
+	public void close() {
+		flush();
+		try {
+			out.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
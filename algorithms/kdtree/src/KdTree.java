@@ -1,14 +1,14 @@
 /**
  * KdTree.java
- * 
+ *
  * @author George Titarenko 08/24/2014 Dependencies: Dependencies: stdlib.jar
  *         algs4.jar
- * 
+ *
  *         Data type KdTree uses a 2d-tree. A 2d-tree is a generalization of a
  *         BST to two-dimensional keys. The idea is to build a BST with points
  *         in the nodes, using the x- and y-coordinates of the points as keys in
  *         strictly alternating sequence.
- * 
+ *
  *         The prime advantage of a 2d-tree over a BST is that it supports
  *         efficient implementation of range search and nearest neighbor search.
  *         Each node corresponds to an axis-aligned rectangle in the unit
@@ -16,59 +16,49 @@
  *         corresponds to the unit square; the left and right children of the
  *         root corresponds to the two rectangles split by the x-coordinate of
  *         the point at the root; and so forth.
+ *
+ *         build() bulk-loads a balanced tree instead of inserting points one
+ *         at a time, which degenerates into a list on sorted input: every
+ *         node is the median of its subtree along its level's coordinate,
+ *         found by quickselect, and large subtrees are built in parallel on
+ *         a fork-join pool.
+ *
+ *         The tree is flattened into primitive arrays: node i has its point
+ *         at xs[i], ys[i] and its children at children[2i] (left/bottom) and
+ *         children[2i + 1] (right/top), NONE for no child. A node's
+ *         orientation follows from its depth and its rectangle is narrowed
+ *         from the unit square on the way down, so neither is stored: a point
+ *         costs 24 bytes instead of a Node, a Point2D and a RectHV. build()
+ *         lays every subtree out in one contiguous run of indices, and
+ *         insert() and contains() walk down in a loop, whatever the depth.
  */
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 
 public class KdTree {
+	private static final int PARALLEL_THRESHOLD = 1 << 13;	// smallest subtree built by a task
+	private static final int NONE = -1;						// no node
 
-	private Node rootNode;
+	private double[] xs;		// x of every node
+	private double[] ys;		// y of every node
+	private int[] children;		// left/bottom and right/top child of every node
+	private int used;			// indices taken, build() may leave unused ones
+	private int rootNode = NONE;
 	private int size;
-	private Point2D closestNeighbor;
+	private int closestNeighbor;
 	private double minSquaredDistance; // use squared to skip expensive
 										// sqrt()call
 
-	private static class Node {
-		private Point2D p; 					// the point
-		private RectHV rect; 				// the axis-aligned rectangle corresponding to this
-											// node
-		private Node lb; 					// the left/bottom subtree
-		private Node rt; 					// the right/top subtree
-		private boolean isLevelVertical;    // true for vertical false for horizontal
-
-		public Node(Point2D p, boolean isLevelVertical, RectHV thatRect) {
-			this.p = p;
-			this.isLevelVertical = isLevelVertical;
-			if (thatRect == null)
-				this.rect = new RectHV(0, 0, 1, 1);
-			else
-				this.rect = thatRect;
-		}
-
-		private void drawNodeLine() {
-			StdDraw.setPenColor(StdDraw.BLACK);
-			StdDraw.setPenRadius(.01);
-			p.draw();
-			Point2D p1;
-			Point2D p2;
-
-			if (isLevelVertical) {
-				StdDraw.setPenColor(StdDraw.RED);
-				p1 = new Point2D(p.x(), rect.ymin());
-				p2 = new Point2D(p.x(), rect.ymax());
-			} else {
-				StdDraw.setPenColor(StdDraw.BLUE);
-				p1 = new Point2D(rect.xmin(), p.y());
-				p2 = new Point2D(rect.xmax(), p.y());
-			}
-
-			StdDraw.setPenRadius();
-			p1.drawTo(p2);
-		}
-	}
-
 	public KdTree() // construct an empty set of points
 	{
-		rootNode = null;
-		this.size = 0;
+		this(16);
+	}
+
+	private KdTree(int capacity) {
+		xs = new double[capacity];
+		ys = new double[capacity];
+		children = new int[2 * capacity];
 	}
 
 	public boolean isEmpty() // is the set empty?
@@ -84,143 +74,295 @@ public class KdTree {
 	public void insert(Point2D p) // add the point p to the set (if it is not
 									// already in the set)
 	{
-		rootNode = insert(rootNode, p, true, null, null);
+		double x = p.x(), y = p.y();
+		if (rootNode == NONE) {
+			rootNode = add(x, y);
+			return;
+		}
+		int node = rootNode;
+		boolean isLevelVertical = true;
+		while (true) {
+			if (xs[node] == x && ys[node] == y)  // Ignore Dups..
+				return;
+			boolean isLess = isLevelVertical ? x < xs[node] : y < ys[node];
+			int slot = 2 * node + (isLess ? 0 : 1);
+			if (children[slot] == NONE) {
+				int child = add(x, y);	// may reallocate children
+				children[slot] = child;
+				return;
+			}
+			node = children[slot];
+			isLevelVertical = !isLevelVertical;
+		}
+	}
+
+	/**
+	 * Appends a childless node
+	 *
+	 * @param x
+	 * @param y
+	 * @return - index of the node
+	 */
+	private int add(double x, double y) {
+		if (used == xs.length) {
+			int capacity = Math.max(16, 2 * used);
+			xs = Arrays.copyOf(xs, capacity);
+			ys = Arrays.copyOf(ys, capacity);
+			children = Arrays.copyOf(children, 2 * capacity);
+		}
+		xs[used] = x;
+		ys[used] = y;
+		children[2 * used] = NONE;
+		children[2 * used + 1] = NONE;
+		size++;
+		return used++;
+	}
+
+	/**
+	 * Bulk-loads a balanced 2D Tree, depth about lg N whatever the order of
+	 * the points. Duplicates are dropped, as insert() does.
+	 *
+	 * @param points - Points of the tree, left unchanged
+	 * @return - New tree holding the distinct points
+	 */
+	public static KdTree build(Point2D[] points) {
+		KdTree tree = new KdTree(points.length);
+		for (int i = 0; i < points.length; i++) {
+			tree.xs[i] = points[i].x();
+			tree.ys[i] = points[i].y();
+		}
+		BuildTask root = new BuildTask(tree, 0, points.length, true, 0, 0, 1, 1);
+		tree.rootNode = ForkJoinPool.commonPool().invoke(root);
+		tree.used = points.length;
+		tree.size = root.count;
+		return tree;
 	}
 
 	/**
-	 * Recursively build a 2D Tree
-	 * 
-	 * @param node - New node to be inserted
-	 * @param p - Point of the new Node
-	 * @param orientation - Orientation of the new Node
-	 * @param parentRect - Rect assosiated with the parent node
-	 * @param parent - Point of the parent Node
-	 * @return - Newly added node
+	 * Builds the subtree of the points at [lo, hi), which lie in the
+	 * rectangle [xmin, xmax] x [ymin, ymax]: the median point becomes the
+	 * node, at its own index, and splits the others into the two child
+	 * subtrees, before and after it
 	 */
-	private Node insert(Node node, Point2D p, boolean orientation,
-			RectHV parentRect, Point2D parent) {
-		if (node == null) {
-			if (parentRect == null) {
-				size++;
-				return new Node(p, orientation, null);
+	private static class BuildTask extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+		private final KdTree tree;			// tree being built
+		private final double[] xs;			// shared, every task reorders its own range
+		private final double[] ys;
+		private final int[] children;
+		private final int lo;
+		private final int hi;
+		private final boolean isLevelVertical;
+		private final double xmin, ymin, xmax, ymax;
+		private final int[] equal = new int[2];	// range of the points tied with the median
+		private int count;					// nodes built
+		private long seed;					// xorshift state of pick()
+
+		BuildTask(KdTree tree, int lo, int hi, boolean isLevelVertical, double xmin,
+				double ymin, double xmax, double ymax) {
+			this.tree = tree;
+			this.xs = tree.xs;
+			this.ys = tree.ys;
+			this.children = tree.children;
+			this.lo = lo;
+			this.hi = hi;
+			this.isLevelVertical = isLevelVertical;
+			this.xmin = xmin;
+			this.ymin = ymin;
+			this.xmax = xmax;
+			this.ymax = ymax;
+			this.seed = 0x9E3779B97F4A7C15L * (lo + 1);
+		}
+
+		@Override
+		protected Integer compute() {
+			return build(lo, hi, isLevelVertical, xmin, ymin, xmax, ymax);
+		}
+
+		private int build(int lo, int hi, boolean vertical, double xmin, double ymin,
+				double xmax, double ymax) {
+			if (lo >= hi)
+				return NONE;
+			select(lo, hi - 1, (lo + hi - 1) >>> 1, vertical);
+			// [lo, first) are below the median, [first, last] tied with it and
+			// the rest above: the first tied point is the node, so that its
+			// left subtree is strictly below it, as insert() has it
+			int first = equal[0], last = equal[1];
+			double x = xs[first], y = ys[first];
+			int kept = first + 1;		// duplicates of the node are dropped from the tied ones
+			for (int i = first + 1; i <= last; i++) {
+				if (xs[i] != x || ys[i] != y) {
+					xs[kept] = xs[i];
+					ys[kept++] = ys[i];
+				}
+			}
+			int end = hi - (last + 1 - kept);
+			if (kept <= last) {
+				System.arraycopy(xs, last + 1, xs, kept, hi - last - 1);
+				System.arraycopy(ys, last + 1, ys, kept, hi - last - 1);
+			}
+
+			count++;
+			if (hi - lo > PARALLEL_THRESHOLD) {
+				BuildTask left = vertical
+						? new BuildTask(tree, lo, first, false, xmin, ymin, x, ymax)
+						: new BuildTask(tree, lo, first, true, xmin, ymin, xmax, y);
+				left.fork();
+				children[2 * first + 1] = vertical
+						? build(first + 1, end, false, x, ymin, xmax, ymax)
+						: build(first + 1, end, true, xmin, y, xmax, ymax);
+				children[2 * first] = left.join();
+				count += left.count;
+			} else if (vertical) {
+				children[2 * first] = build(lo, first, false, xmin, ymin, x, ymax);
+				children[2 * first + 1] = build(first + 1, end, false, x, ymin, xmax, ymax);
 			} else {
-				RectHV newRect;
-				if (orientation) {
-					if (p.y() < parent.y()) {
-						newRect = new RectHV(parentRect.xmin(),
-								parentRect.ymin(), parentRect.xmax(),
-								parent.y());
-					} else {
-						newRect = new RectHV(parentRect.xmin(), parent.y(),
-								parentRect.xmax(), parentRect.ymax());
-					}
-				} else {
-					if (p.x() < parent.x()) {
-						newRect = new RectHV(parentRect.xmin(),
-								parentRect.ymin(), parent.x(),
-								parentRect.ymax());
-					} else {
-						newRect = new RectHV(parent.x(), parentRect.ymin(),
-								parentRect.xmax(), parentRect.ymax());
-					}
+				children[2 * first] = build(lo, first, true, xmin, ymin, xmax, y);
+				children[2 * first + 1] = build(first + 1, end, true, xmin, y, xmax, ymax);
+			}
+			return first;
+		}
+
+		/**
+		 * Quickselect with 3-way partitioning: reorders the points at [lo, hi]
+		 * so the k-th is in place, and sets equal to the range of the points
+		 * with the same key, all smaller keys before it and larger ones after
+		 */
+		private void select(int lo, int hi, int k, boolean vertical) {
+			double[] keys = vertical ? xs : ys;
+			while (true) {
+				// median of three keys at random places: partitioning reorders
+				// the range, so fixed places find poor pivots on sorted input
+				double a = keys[pick(lo, hi)], b = keys[pick(lo, hi)], c = keys[pick(lo, hi)];
+				double v = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+
+				int lt = lo, i = lo, gt = hi;
+				while (i <= gt) {
+					if (keys[i] < v)
+						swap(lt++, i++);
+					else if (keys[i] > v)
+						swap(i, gt--);
+					else
+						i++;
+				}
+				if (k < lt)
+					hi = lt - 1;
+				else if (k > gt)
+					lo = gt + 1;
+				else {
+					equal[0] = lt;
+					equal[1] = gt;
+					return;
 				}
-				size++;
-				return new Node(p, orientation, newRect);
 			}
 		}
 
-		if (node.p.equals(p))  // Ignore Dups..
-			return node;
-		if (node.isLevelVertical) {
-			if (p.x() < node.p.x())
-				node.lb = insert(node.lb, p, !node.isLevelVertical, node.rect, node.p);
-			else
-				node.rt = insert(node.rt, p, !node.isLevelVertical, node.rect, node.p);
-		} else {
-			if (p.y() < node.p.y())
-				node.lb = insert(node.lb, p, !node.isLevelVertical, node.rect, node.p);
-			else
-				node.rt = insert(node.rt, p, !node.isLevelVertical, node.rect, node.p);
+		/**
+		 * @return a pseudo-random index of [lo, hi]
+		 */
+		private int pick(int lo, int hi) {
+			seed ^= seed << 13;
+			seed ^= seed >>> 7;
+			seed ^= seed << 17;
+			return lo + (int) ((seed >>> 32) * (hi - lo + 1) >>> 32);
 		}
 
-		return node;
+		private void swap(int i, int j) {
+			double t = xs[i];
+			xs[i] = xs[j];
+			xs[j] = t;
+			t = ys[i];
+			ys[i] = ys[j];
+			ys[j] = t;
+		}
 	}
 
 	public boolean contains(Point2D p) // does the set contain the point p?
 	{
-		return getPoint(rootNode, p) != null;
-	}
-
-	/**
-	 * Recursively searches 2D three for a particular Point, returns it if
-	 * found, null otherwise lg N performance
-	 * 
-	 * @param node
-	 * @param p
-	 * @return
-	 */
-	private Point2D getPoint(Node node, Point2D p) {
-
-		if (node == null)
-			return null;
-		if (node.p.equals(p) == true) {
-			return p;
-		}
-		if (node.isLevelVertical) {
-			if (p.x() < node.p.x())
-				return getPoint(node.lb, p);
-			else
-				return getPoint(node.rt, p);
-		} else {
-			if (p.y() < node.p.y())
-				return getPoint(node.lb, p);
-			else
-				return getPoint(node.rt, p);
+		double x = p.x(), y = p.y();
+		boolean isLevelVertical = true;
+		for (int node = rootNode; node != NONE; isLevelVertical = !isLevelVertical) {
+			if (xs[node] == x && ys[node] == y)
+				return true;
+			boolean isLess = isLevelVertical ? x < xs[node] : y < ys[node];
+			node = children[2 * node + (isLess ? 0 : 1)];
 		}
+		return false;
 	}
 
 	public void draw() 					// draw all of the points + lines to standard draw
 	{
-		drawNode(rootNode);
+		drawNode(rootNode, true, 0, 0, 1, 1);
 	}
 
 	/**
 	 * Recursively draws points and associated lines for the 2D tree
-	 * 
+	 *
 	 * @param node
+	 * @param isLevelVertical
+	 * @param xmin, ymin, xmax, ymax - Rectangle of the node
 	 */
-	private void drawNode(Node node) {
-		if (node == null)
+	private void drawNode(int node, boolean isLevelVertical, double xmin, double ymin,
+			double xmax, double ymax) {
+		if (node == NONE)
 			return;
-		node.drawNodeLine();
-		drawNode(node.lb);
-		drawNode(node.rt);
+		double x = xs[node], y = ys[node];
+		StdDraw.setPenColor(StdDraw.BLACK);
+		StdDraw.setPenRadius(.01);
+		new Point2D(x, y).draw();
+		StdDraw.setPenRadius();
+		if (isLevelVertical) {
+			StdDraw.setPenColor(StdDraw.RED);
+			new Point2D(x, ymin).drawTo(new Point2D(x, ymax));
+			drawNode(children[2 * node], false, xmin, ymin, x, ymax);
+			drawNode(children[2 * node + 1], false, x, ymin, xmax, ymax);
+		} else {
+			StdDraw.setPenColor(StdDraw.BLUE);
+			new Point2D(xmin, y).drawTo(new Point2D(xmax, y));
+			drawNode(children[2 * node], true, xmin, ymin, xmax, y);
+			drawNode(children[2 * node + 1], true, xmin, y, xmax, ymax);
+		}
 	}
 
 	public Iterable<Point2D> range(RectHV rect) 		// all points in the set that
 														// are inside the rectangle
 	{
 		SET<Point2D> rangeSet = new SET<Point2D>();
-		rangePoints(rootNode, rect, rangeSet);
+		rangePoints(rootNode, true, 0, 0, 1, 1, rect.xmin(), rect.ymin(), rect.xmax(),
+				rect.ymax(), rangeSet);
 		return rangeSet;
 	}
 
 	/**
 	 * Recursive effective search for all points within a given range
 	 * (rectangle).
-	 * 
+	 *
 	 * @param node
-	 * @param rect
+	 * @param isLevelVertical
+	 * @param xmin, ymin, xmax, ymax - Rectangle of the node
+	 * @param qxmin, qymin, qxmax, qymax - Range searched
 	 * @param rangeSet
 	 */
-	private void rangePoints(Node node, RectHV rect, SET<Point2D> rangeSet) {
-		if (node == null)
+	private void rangePoints(int node, boolean isLevelVertical, double xmin, double ymin,
+			double xmax, double ymax, double qxmin, double qymin, double qxmax, double qymax,
+			SET<Point2D> rangeSet) {
+		if (node == NONE)
 			return;
-		if (rect.intersects(node.rect)) {
-			if (rect.contains(node.p))
-				rangeSet.add(node.p);
-			rangePoints(node.lb, rect, rangeSet);
-			rangePoints(node.rt, rect, rangeSet);
+		if (qxmax >= xmin && qymax >= ymin && xmax >= qxmin && ymax >= qymin) {
+			double x = xs[node], y = ys[node];
+			if (x >= qxmin && x <= qxmax && y >= qymin && y <= qymax)
+				rangeSet.add(new Point2D(x, y));
+			if (isLevelVertical) {
+				rangePoints(children[2 * node], false, xmin, ymin, x, ymax,
+						qxmin, qymin, qxmax, qymax, rangeSet);
+				rangePoints(children[2 * node + 1], false, x, ymin, xmax, ymax,
+						qxmin, qymin, qxmax, qymax, rangeSet);
+			} else {
+				rangePoints(children[2 * node], true, xmin, ymin, xmax, y,
+						qxmin, qymin, qxmax, qymax, rangeSet);
+				rangePoints(children[2 * node + 1], true, xmin, y, xmax, ymax,
+						qxmin, qymin, qxmax, qymax, rangeSet);
+			}
 		}
 	}
 
@@ -228,51 +370,59 @@ public class KdTree {
 												// null if set is empty
 	{
 		minSquaredDistance = Double.POSITIVE_INFINITY;
-		closestNeighbor = null;
-		getClosestNeighbor(p, rootNode);
+		closestNeighbor = NONE;
+		getClosestNeighbor(p.x(), p.y(), rootNode, true, 0, 0, 1, 1);
 
-		return closestNeighbor;
+		if (closestNeighbor == NONE)
+			return null;
+		return new Point2D(xs[closestNeighbor], ys[closestNeighbor]);
 	}
 
 	/**
 	 * Recursive effective search implementation for the Point in the 2D tree
 	 * which is the CLOSEST to a given query Point. Eliminates from the search
 	 * path subtrees with guaranteed no-closer points.
-	 * When there are two possible subtrees to go down, we always choose the subtree 
-	 * that is on the same side of the splitting line as the query point 
-	 * as the first subtree to explore the closest point found while exploring the first 
+	 * When there are two possible subtrees to go down, we always choose the subtree
+	 * that is on the same side of the splitting line as the query point
+	 * as the first subtree to explore the closest point found while exploring the first
 	 * subtree may enable pruning of the second subtree.
-	 * 
-	 * @param p
+	 *
+	 * @param px, py - Query point
 	 * @param node
+	 * @param isLevelVertical
+	 * @param xmin, ymin, xmax, ymax - Rectangle of the node
 	 */
-	private void getClosestNeighbor(Point2D p, Node node) {
-		if (node == null)
+	private void getClosestNeighbor(double px, double py, int node, boolean isLevelVertical,
+			double xmin, double ymin, double xmax, double ymax) {
+		if (node == NONE)
 			return;
 
-		double currentDistanceTosqRoot;
-
-		if (node.rect.distanceSquaredTo(p) < minSquaredDistance) {
-			if ((currentDistanceTosqRoot = node.p.distanceSquaredTo(p)) < minSquaredDistance) {
+		double dx = px < xmin ? xmin - px : px > xmax ? px - xmax : 0;
+		double dy = py < ymin ? ymin - py : py > ymax ? py - ymax : 0;
+		if (dx * dx + dy * dy < minSquaredDistance) {
+			double x = xs[node], y = ys[node];
+			double currentDistanceTosqRoot = (x - px) * (x - px) + (y - py) * (y - py);
+			if (currentDistanceTosqRoot < minSquaredDistance) {
 				minSquaredDistance = currentDistanceTosqRoot;
-				closestNeighbor = node.p;
+				closestNeighbor = node;
 			}
 
-			if (node.isLevelVertical) {
-				if (p.x() < node.p.x()) {
-					getClosestNeighbor(p, node.lb);
-					getClosestNeighbor(p, node.rt);
+			int lb = children[2 * node], rt = children[2 * node + 1];
+			if (isLevelVertical) {
+				if (px < x) {
+					getClosestNeighbor(px, py, lb, false, xmin, ymin, x, ymax);
+					getClosestNeighbor(px, py, rt, false, x, ymin, xmax, ymax);
 				} else {
-					getClosestNeighbor(p, node.rt);
-					getClosestNeighbor(p, node.lb);
+					getClosestNeighbor(px, py, rt, false, x, ymin, xmax, ymax);
+					getClosestNeighbor(px, py, lb, false, xmin, ymin, x, ymax);
 				}
 			} else {
-				if (p.y() < node.p.y()) {
-					getClosestNeighbor(p, node.lb);
-					getClosestNeighbor(p, node.rt);
+				if (py < y) {
+					getClosestNeighbor(px, py, lb, true, xmin, ymin, xmax, y);
+					getClosestNeighbor(px, py, rt, true, xmin, y, xmax, ymax);
 				} else {
-					getClosestNeighbor(p, node.rt);
-					getClosestNeighbor(p, node.lb);
+					getClosestNeighbor(px, py, rt, true, xmin, y, xmax, ymax);
+					getClosestNeighbor(px, py, lb, true, xmin, ymin, xmax, y);
 				}
 			}
 		}
@@ -0,0 +1,338 @@
+/**
+ * Point2DFile.java
+ *
+ * @author George Titarenko
+ * 10/19/2026
+ * Dependencies: stdlib.jar algs4.jar
+ *
+ *         Fast loader for point files, replacing In.readDouble() which scans
+ *         through a Scanner and allocates a String per token. Two formats are
+ *         read:
+ *         - text, the assignment format: pairs of x, y until the end of the
+ *           file. The file is memory-mapped and doubles are parsed straight
+ *           from its bytes; a number with at most 15 significant digits and a
+ *           small exponent is one exact long to double conversion and one
+ *           correctly rounded multiply or divide, anything else goes through
+ *           Double.parseDouble();
+ *         - binary, packed little-endian: the magic "PTD1", int N, an unused
+ *           int, double bounds xmin, ymin, xmax, ymax, then N pairs of double
+ *           x, y.
+ *         load() tells the two apart by the magic. Coordinates come back as
+ *         struct-of-arrays double[] xs, ys or as a Point2D[]. The main
+ *         converts a file from one format to the other.
+ *
+ */
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+
+public final class Point2DFile {
+	private static final int MAGIC = 0x31445450;		// "PTD1" read as a little-endian int
+	private static final int HEADER_BYTES = 40;			// magic, N, unused and the four bounds
+	private static final long WINDOW = 1L << 30;		// bytes mapped at a time
+	private static final double[] POWERS_OF_TEN = new double[23];	// exact doubles 1e0 .. 1e22
+
+	static {
+		POWERS_OF_TEN[0] = 1;
+		for (int i = 1; i < POWERS_OF_TEN.length; i++)
+			POWERS_OF_TEN[i] = 10 * POWERS_OF_TEN[i - 1];
+	}
+
+	private final double[] xs;		// x coordinates
+	private final double[] ys;		// y coordinates
+
+	private Point2DFile(double[] xs, double[] ys) {
+		this.xs = xs;
+		this.ys = ys;
+	}
+
+	public static Point2DFile load(String path) // read a text or binary point file
+	{
+		try (FileChannel channel = FileChannel.open(Paths.get(path), StandardOpenOption.READ)) {
+			Scanner scanner = new Scanner(channel);
+			if (channel.size() >= HEADER_BYTES && scanner.peekInt() == MAGIC)
+				return readBinary(scanner);
+			return readText(scanner);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static Point2DFile readText(Scanner scanner) throws IOException {
+		double[] xs = new double[1024], ys = new double[1024];
+		int N = 0;
+		while (scanner.skipWhitespace()) {
+			if (N == xs.length) {
+				xs = Arrays.copyOf(xs, 2 * N);
+				ys = Arrays.copyOf(ys, 2 * N);
+			}
+			xs[N] = scanner.nextDouble();
+			if (!scanner.skipWhitespace())
+				throw new InputMismatchException("Missing y coordinate of point " + N);
+			ys[N++] = scanner.nextDouble();
+		}
+		return new Point2DFile(Arrays.copyOf(xs, N), Arrays.copyOf(ys, N));
+	}
+
+	private static Point2DFile readBinary(Scanner scanner) throws IOException {
+		scanner.readInt();		// magic
+		int N = scanner.readInt();
+		if (N < 0)
+			throw new InputMismatchException("Negative number of points " + N);
+		scanner.readInt();		// unused
+		for (int k = 0; k < 4; k++)
+			scanner.readDouble();	// bounds, recomputed on write
+		double[] xs = new double[N], ys = new double[N];
+		for (int i = 0; i < N; i++) {
+			xs[i] = scanner.readDouble();
+			ys[i] = scanner.readDouble();
+		}
+		return new Point2DFile(xs, ys);
+	}
+
+	public int size() // number of points
+	{
+		return xs.length;
+	}
+
+	public double[] xs() // x coordinates, shared with this file: do not modify
+	{
+		return xs;
+	}
+
+	public double[] ys() // y coordinates, shared with this file: do not modify
+	{
+		return ys;
+	}
+
+	public Point2D[] points() // a new array with the points in file order
+	{
+		Point2D[] points = new Point2D[xs.length];
+		for (int i = 0; i < points.length; i++)
+			points[i] = new Point2D(xs[i], ys[i]);
+		return points;
+	}
+
+	public RectHV bounds() // smallest rectangle holding every point, null if none
+	{
+		if (xs.length == 0)
+			return null;
+		double[] b = bounds(xs, ys);
+		return new RectHV(b[0], b[1], b[2], b[3]);
+	}
+
+	private static double[] bounds(double[] xs, double[] ys) {
+		double[] b = { Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+				Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY };
+		for (int i = 0; i < xs.length; i++) {
+			b[0] = Math.min(b[0], xs[i]);
+			b[1] = Math.min(b[1], ys[i]);
+			b[2] = Math.max(b[2], xs[i]);
+			b[3] = Math.max(b[3], ys[i]);
+		}
+		return b;
+	}
+
+	public void writeText(OutputStream out) throws IOException // text format
+	{
+		StringBuilder line = new StringBuilder(48);
+		for (int i = 0; i < xs.length; i++) {
+			line.setLength(0);
+			line.append(xs[i]).append(' ').append(ys[i]).append('\n');
+			out.write(line.toString().getBytes("US-ASCII"));
+		}
+		out.flush();
+	}
+
+	public void writeBinary(OutputStream out) throws IOException // binary format
+	{
+		double[] b = xs.length == 0 ? new double[4] : bounds(xs, ys);
+		DataOutputStream data = new DataOutputStream(out);
+		data.writeInt(Integer.reverseBytes(MAGIC));
+		data.writeInt(Integer.reverseBytes(xs.length));
+		data.writeInt(0);
+		for (double bound : b)
+			data.writeLong(Long.reverseBytes(Double.doubleToRawLongBits(bound)));
+		for (int i = 0; i < xs.length; i++) {
+			data.writeLong(Long.reverseBytes(Double.doubleToRawLongBits(xs[i])));
+			data.writeLong(Long.reverseBytes(Double.doubleToRawLongBits(ys[i])));
+		}
+		data.flush();
+	}
+
+	/**
+	 * Sequential reader over a memory-mapped file, remapping the next window
+	 * when the current one runs out
+	 */
+	private static class Scanner {
+		private final FileChannel channel;
+		private final long length;			// file size in bytes
+		private MappedByteBuffer buffer;	// current window
+		private long windowStart;			// file position of the window
+		private char[] token = new char[32];	// text of the number being parsed
+
+		Scanner(FileChannel channel) throws IOException {
+			this.channel = channel;
+			this.length = channel.size();
+			map(0);
+		}
+
+		private void map(long position) throws IOException {
+			windowStart = position;
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+					Math.min(WINDOW, length - position));
+			buffer.order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		private boolean refill() throws IOException {
+			long position = windowStart + buffer.limit();
+			if (position >= length)
+				return false;
+			map(position);
+			return true;
+		}
+
+		int peekInt() {
+			return buffer.getInt(0);
+		}
+
+		int readInt() throws IOException {
+			if (buffer.remaining() >= 4)
+				return buffer.getInt();
+			return (int) readBytes(4);
+		}
+
+		double readDouble() throws IOException {
+			if (buffer.remaining() >= 8)
+				return buffer.getDouble();
+			return Double.longBitsToDouble(readBytes(8));
+		}
+
+		// little-endian value straddling two windows
+		private long readBytes(int count) throws IOException {
+			long value = 0;
+			for (int k = 0; k < count; k++) {
+				if (!buffer.hasRemaining() && !refill())
+					throw new InputMismatchException("Not enough points provided!\n");
+				value |= (buffer.get() & 0xFFL) << (8 * k);
+			}
+			return value;
+		}
+
+		/**
+		 * Skips whitespace, false at the end of the file
+		 */
+		boolean skipWhitespace() throws IOException {
+			while (true) {
+				if (!buffer.hasRemaining() && !refill())
+					return false;
+				byte b = buffer.get(buffer.position());
+				if (b != ' ' && b != '\n' && b != '\r' && b != '\t')
+					return true;
+				buffer.get();
+			}
+		}
+
+		/**
+		 * Parses the decimal number starting at the current byte
+		 */
+		double nextDouble() throws IOException {
+			int length = 0;
+			while (true) {
+				if (!buffer.hasRemaining() && !refill())
+					break;
+				byte b = buffer.get(buffer.position());
+				if (b == ' ' || b == '\n' || b == '\r' || b == '\t')
+					break;
+				buffer.get();
+				if (length == token.length)
+					token = Arrays.copyOf(token, 2 * length);
+				token[length++] = (char) b;
+			}
+
+			// fast path: [sign] digits [. digits] [e [sign] digits]
+			int i = 0;
+			boolean negative = length > 0 && token[0] == '-';
+			if (negative || length > 0 && token[0] == '+')
+				i++;
+			long mantissa = 0;
+			int digits = 0, scale = 0;
+			boolean seen = false, dot = false;
+			for (; i < length; i++) {
+				char c = token[i];
+				if (c >= '0' && c <= '9') {
+					seen = true;
+					if (mantissa == 0 && c == '0') {
+						if (dot)
+							scale--;
+						continue;
+					}
+					if (++digits > 15)
+						return slowPath(length);
+					mantissa = 10 * mantissa + (c - '0');
+					if (dot)
+						scale--;
+				} else if (c == '.' && !dot)
+					dot = true;
+				else
+					break;
+			}
+			if (!seen)
+				return slowPath(length);
+			if (i < length) {
+				if (token[i] != 'e' && token[i] != 'E' || length - i > 5)
+					return slowPath(length);
+				int exponent;
+				try {
+					exponent = Integer.parseInt(new String(token, i + 1, length - i - 1));
+				} catch (NumberFormatException e) {
+					return slowPath(length);
+				}
+				scale += exponent;
+			}
+			double value;
+			if (mantissa == 0)
+				value = 0;
+			else if (scale >= 0 && scale < POWERS_OF_TEN.length)
+				value = mantissa * POWERS_OF_TEN[scale];
+			else if (scale < 0 && -scale < POWERS_OF_TEN.length)
+				value = mantissa / POWERS_OF_TEN[-scale];
+			else
+				return slowPath(length);
+			return negative ? -value : value;
+		}
+
+		private double slowPath(int length) {
+			String text = new String(token, 0, length);
+			try {
+				return Double.parseDouble(text);
+			} catch (NumberFormatException e) {
+				throw new InputMismatchException("Not a number: " + text);
+			}
+		}
+	}
+
+	public static void main(String[] args) throws IOException // convert to binary, or to text with -text
+	{
+		boolean text = args.length > 2 && args[2].equals("-text");
+		Point2DFile file = load(args[0]);
+		try (OutputStream out = new BufferedOutputStream(
+				Files.newOutputStream(Paths.get(args[1])), 1 << 16)) {
+			if (text)
+				file.writeText(out);
+			else
+				file.writeBinary(out);
+		}
+	}
+}
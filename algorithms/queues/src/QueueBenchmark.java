@@ -0,0 +1,350 @@
+/****************************************************************************
+ * Author: George Titarenko
+ * Last updated: 10/19/2026
+ * Compilation: javac QueueBenchmark.java
+ * Execution: java QueueBenchmark [size] [filter]
+ * Dependencies: Deque.java RandomizedQueue.java Subset.java stdlib.jar
+ * This is a micro-benchmark harness for Deque and RandomizedQueue, compared
+ * against java.util.ArrayDeque and java.util.LinkedList.
+ * Every workload/implementation pair runs in its own forked JVM, so the call
+ * sites stay monomorphic, then goes through warm-up iterations followed by
+ * timed ones. Reports ns/op, ops/s, GC activity and the allocation rate
+ * (bytes/op and MB/s) taken from the per-thread allocation counter.
+ * NOTE: filter keeps the workloads whose name or implementation contains it,
+ * e.g. "java QueueBenchmark 1000 burst".
+ ****************************************************************************/
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+public class QueueBenchmark {
+	private static final int WARMUP_ITERATIONS = 5;			// iterations thrown away
+	private static final int MEASURE_ITERATIONS = 10;		// iterations reported
+	private static final long ITERATION_NANOS = 250000000L;	// time spent in one iteration
+	private static final String RESULT_TAG = "#result";		// marks the line a fork reports
+
+	private static final String DEQUE = "Deque";
+	private static final String RANDOMIZED_QUEUE = "RandomizedQueue";
+	private static final String ARRAY_DEQUE = "ArrayDeque";
+	private static final String LINKED_LIST = "LinkedList";
+	private static final String SUBSET = "Subset";
+
+	private static volatile long sink;		// consumes checksums so the JIT can't drop the work
+
+	/**
+	 * The common operations of the structures under test. RandomizedQueue
+	 * maps addLast/removeFirst to enqueue/dequeue and supports nothing else.
+	 */
+	private interface Container {
+		void addFirst(Integer item);
+		void addLast(Integer item);
+		Integer removeFirst();
+		Integer removeLast();
+		Integer sample();
+		Iterator<Integer> iterator();
+	}
+
+	private static class DequeContainer implements Container {
+		private final Deque<Integer> deque = new Deque<Integer>();
+		public void addFirst(Integer item) { deque.addFirst(item); }
+		public void addLast(Integer item) { deque.addLast(item); }
+		public Integer removeFirst() { return deque.removeFirst(); }
+		public Integer removeLast() { return deque.removeLast(); }
+		public Integer sample() { throw new UnsupportedOperationException(); }
+		public Iterator<Integer> iterator() { return deque.iterator(); }
+	}
+
+	private static class RandomizedQueueContainer implements Container {
+		private final RandomizedQueue<Integer> queue = new RandomizedQueue<Integer>();
+		public void addFirst(Integer item) { throw new UnsupportedOperationException(); }
+		public void addLast(Integer item) { queue.enqueue(item); }
+		public Integer removeFirst() { return queue.dequeue(); }
+		public Integer removeLast() { throw new UnsupportedOperationException(); }
+		public Integer sample() { return queue.sample(); }
+		public Iterator<Integer> iterator() { return queue.iterator(); }
+	}
+
+	private static class JavaDequeContainer implements Container {
+		private final java.util.Deque<Integer> deque;
+		JavaDequeContainer(java.util.Deque<Integer> deque) { this.deque = deque; }
+		public void addFirst(Integer item) { deque.addFirst(item); }
+		public void addLast(Integer item) { deque.addLast(item); }
+		public Integer removeFirst() { return deque.removeFirst(); }
+		public Integer removeLast() { return deque.removeLast(); }
+		public Integer sample() { throw new UnsupportedOperationException(); }
+		public Iterator<Integer> iterator() { return deque.iterator(); }
+	}
+
+	private static Container newContainer(String impl) {
+		if (impl.equals(DEQUE))
+			return new DequeContainer();
+		if (impl.equals(RANDOMIZED_QUEUE))
+			return new RandomizedQueueContainer();
+		if (impl.equals(ARRAY_DEQUE))
+			return new JavaDequeContainer(new ArrayDeque<Integer>());
+		if (impl.equals(LINKED_LIST))
+			return new JavaDequeContainer(new LinkedList<Integer>());
+		if (impl.equals(SUBSET))
+			return null;				// the Subset pipeline owns its queue
+		throw new IllegalArgumentException("Unknown implementation " + impl);
+	}
+
+	/**
+	 * A benchmark workload. run() executes one batch of operationsPerBatch()
+	 * operations and returns a checksum of what it touched.
+	 */
+	private static abstract class Workload {
+		final String name;
+		final String[] impls;
+		final int size;
+		final Integer[] items;			// boxed once, so boxing is not measured
+
+		Workload(String name, int size, String... impls) {
+			this.name = name;
+			this.impls = impls;
+			this.size = size;
+			this.items = new Integer[size];
+			for (int i = 0; i < size; i++)
+				items[i] = Integer.valueOf(i);
+		}
+
+		void setUp(Container c) { }
+		abstract int operationsPerBatch();
+		abstract long run(Container c);
+	}
+
+	private static final int STEADY_BATCH = 1024;	// push/pop pairs per batch in steady state
+
+	/**
+	 * All workloads for a given structure size
+	 * @param size
+	 * @return
+	 */
+	private static List<Workload> workloads(int size) {
+		List<Workload> list = new ArrayList<Workload>();
+
+		// push/pop at the front while holding size items
+		list.add(new Workload("steady-front", size, DEQUE, ARRAY_DEQUE, LINKED_LIST) {
+			void setUp(Container c) { for (Integer item : items) c.addLast(item); }
+			int operationsPerBatch() { return 2 * STEADY_BATCH; }
+			long run(Container c) {
+				long sum = 0;
+				for (int i = 0; i < STEADY_BATCH; i++) {
+					c.addFirst(items[i % size]);
+					sum += c.removeFirst();
+				}
+				return sum;
+			}
+		});
+
+		// push/pop at the end while holding size items
+		list.add(new Workload("steady-back", size, DEQUE, ARRAY_DEQUE, LINKED_LIST) {
+			void setUp(Container c) { for (Integer item : items) c.addLast(item); }
+			int operationsPerBatch() { return 2 * STEADY_BATCH; }
+			long run(Container c) {
+				long sum = 0;
+				for (int i = 0; i < STEADY_BATCH; i++) {
+					c.addLast(items[i % size]);
+					sum += c.removeLast();
+				}
+				return sum;
+			}
+		});
+
+		// push at one end, pop at the other while holding size items
+		list.add(new Workload("steady-fifo", size, DEQUE, RANDOMIZED_QUEUE, ARRAY_DEQUE, LINKED_LIST) {
+			void setUp(Container c) { for (Integer item : items) c.addLast(item); }
+			int operationsPerBatch() { return 2 * STEADY_BATCH; }
+			long run(Container c) {
+				long sum = 0;
+				for (int i = 0; i < STEADY_BATCH; i++) {
+					c.addLast(items[i % size]);
+					sum += c.removeFirst();
+				}
+				return sum;
+			}
+		});
+
+		// grow from empty to size and shrink back, RandomizedQueue resizes both ways
+		list.add(new Workload("burst", size, DEQUE, RANDOMIZED_QUEUE, ARRAY_DEQUE, LINKED_LIST) {
+			int operationsPerBatch() { return 2 * size; }
+			long run(Container c) {
+				long sum = 0;
+				for (int i = 0; i < size; i++)
+					c.addLast(items[i]);
+				for (int i = 0; i < size; i++)
+					sum += c.removeFirst();
+				return sum;
+			}
+		});
+
+		// full iteration over size items
+		list.add(new Workload("iterate", size, DEQUE, RANDOMIZED_QUEUE, ARRAY_DEQUE, LINKED_LIST) {
+			void setUp(Container c) { for (Integer item : items) c.addLast(item); }
+			int operationsPerBatch() { return size; }
+			long run(Container c) {
+				long sum = 0;
+				Iterator<Integer> it = c.iterator();
+				while (it.hasNext())
+					sum += it.next();
+				return sum;
+			}
+		});
+
+		// sample() hot loop over size items
+		list.add(new Workload("sample", size, RANDOMIZED_QUEUE) {
+			void setUp(Container c) { for (Integer item : items) c.addLast(item); }
+			int operationsPerBatch() { return STEADY_BATCH; }
+			long run(Container c) {
+				long sum = 0;
+				for (int i = 0; i < STEADY_BATCH; i++)
+					sum += c.sample();
+				return sum;
+			}
+		});
+
+		// Subset client: enqueue size tokens, dequeue a quarter of them
+		final List<String> tokens = new ArrayList<String>(size);
+		for (int i = 0; i < size; i++)
+			tokens.add("t" + i);
+		list.add(new Workload("subset", size, SUBSET) {
+			int operationsPerBatch() { return size; }
+			long run(Container c) {
+				long sum = 0;
+				for (String s : Subset.select(tokens, size / 4))
+					sum += s.length();
+				return sum;
+			}
+		});
+		return list;
+	}
+
+	/**
+	 * Runs one workload/implementation pair in this JVM and prints its result line
+	 */
+	private static void runFork(String workloadName, String impl, int size) {
+		Workload workload = null;
+		for (Workload w : workloads(size))
+			if (w.name.equals(workloadName))
+				workload = w;
+		if (workload == null)
+			throw new IllegalArgumentException("Unknown workload " + workloadName);
+
+		Container c = newContainer(impl);
+		if (c != null)
+			workload.setUp(c);
+
+		com.sun.management.ThreadMXBean threads =
+				(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		long threadId = Thread.currentThread().getId();
+
+		double[] nanosPerOp = new double[MEASURE_ITERATIONS];
+		long totalOps = 0, totalNanos = 0, totalBytes = 0;
+		long gcCount = 0, gcMillis = 0;
+		for (int iteration = 0; iteration < WARMUP_ITERATIONS + MEASURE_ITERATIONS; iteration++) {
+			long gcCountBefore = gcCount(), gcMillisBefore = gcMillis();
+			long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+			long start = System.nanoTime(), elapsed, ops = 0, checksum = 0;
+			do {
+				checksum += workload.run(c);
+				ops += workload.operationsPerBatch();
+			} while ((elapsed = System.nanoTime() - start) < ITERATION_NANOS);
+			long bytes = threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+			sink += checksum;
+
+			if (iteration >= WARMUP_ITERATIONS) {
+				nanosPerOp[iteration - WARMUP_ITERATIONS] = (double) elapsed / ops;
+				totalOps += ops;
+				totalNanos += elapsed;
+				totalBytes += bytes;
+				gcCount += gcCount() - gcCountBefore;
+				gcMillis += gcMillis() - gcMillisBefore;
+			}
+		}
+
+		double mean = 0, variance = 0;
+		for (double v : nanosPerOp)
+			mean += v / MEASURE_ITERATIONS;
+		for (double v : nanosPerOp)
+			variance += (v - mean) * (v - mean) / (MEASURE_ITERATIONS - 1);
+		double bytesPerOp = (double) totalBytes / totalOps;
+		double allocMBPerSec = totalBytes / (1024.0 * 1024.0) / (totalNanos / 1e9);
+		System.out.println(RESULT_TAG + " " + workloadName + " " + impl + " " + mean + " "
+				+ Math.sqrt(variance) + " " + bytesPerOp + " " + allocMBPerSec + " "
+				+ gcCount + " " + gcMillis);
+	}
+
+	private static long gcCount() {
+		long count = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			count += Math.max(0, gc.getCollectionCount());
+		return count;
+	}
+
+	private static long gcMillis() {
+		long millis = 0;
+		for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+			millis += Math.max(0, gc.getCollectionTime());
+		return millis;
+	}
+
+	/**
+	 * Starts a fresh JVM with the same classpath for one workload/implementation pair
+	 * @return the fork's result line, split into fields
+	 */
+	private static String[] fork(String workload, String impl, int size) throws Exception {
+		String javaBin = System.getProperty("java.home") + File.separator + "bin"
+				+ File.separator + "java";
+		ProcessBuilder builder = new ProcessBuilder(javaBin, "-cp",
+				System.getProperty("java.class.path"), QueueBenchmark.class.getName(),
+				"--fork", workload, impl, Integer.toString(size));
+		builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+		Process process = builder.start();
+		BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()));
+		String[] result = null;
+		for (String line = out.readLine(); line != null; line = out.readLine())
+			if (line.startsWith(RESULT_TAG))
+				result = line.split(" ");
+		if (process.waitFor() != 0 || result == null)
+			throw new IllegalStateException("Fork failed for " + workload + " " + impl);
+		return result;
+	}
+
+	/**
+	 * Main method, accepts an optional structure size and name filter
+	 * and prints one row per workload/implementation pair
+	 * @param args
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0 && args[0].equals("--fork")) {
+			runFork(args[1], args[2], Integer.parseInt(args[3]));
+			return;
+		}
+		int size = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+		String filter = args.length > 1 ? args[1] : "";
+		if (size <= 0)
+			throw new IllegalArgumentException("size must be positive");
+
+		System.out.printf("%-13s %-16s %12s %10s %14s %10s %10s %5s %7s%n", "workload", "impl",
+				"ns/op", "+-", "ops/s", "B/op", "MB/s", "gc", "gc ms");
+		for (Workload w : workloads(size)) {
+			for (String impl : w.impls) {
+				if (!w.name.contains(filter) && !impl.contains(filter))
+					continue;
+				String[] r = fork(w.name, impl, size);
+				double nanosPerOp = Double.parseDouble(r[3]);
+				System.out.printf("%-13s %-16s %12.2f %10.2f %14.0f %10.1f %10.1f %5s %7s%n",
+						w.name, impl, nanosPerOp, Double.parseDouble(r[4]), 1e9 / nanosPerOp,
+						Double.parseDouble(r[5]), Double.parseDouble(r[6]), r[7], r[8]);
+			}
+		}
+	}
+}
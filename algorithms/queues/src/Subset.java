@@ -1,20 +1,39 @@
 /****************************************************************************
  * Author: George Titarenko
- * Last updated: 7/11/2014 
- * Compilation: javac Subset.java 
+ * Last updated: 7/11/2014
+ * Compilation: javac Subset.java
  * Execution: echo 11 22 33 44 55 66 77 | java Subset 3
- * Dependencies: stdlib.jar 
+ * Dependencies: stdlib.jar
  * This is a Subset client for testing
  ****************************************************************************/
+
+import java.util.ArrayList;
+
 public class Subset {
+	/**
+	 * Enqueues all items and dequeues K of them uniformly at random
+	 * @param items
+	 * @param K
+	 * @return
+	 */
+	public static String[] select(Iterable<String> items, int K) {
+		RandomizedQueue<String> myRandom = new RandomizedQueue<String>();
+		for (String s : items)
+			myRandom.enqueue(s);
+		if (K < 0 || K > myRandom.size())
+			throw new IllegalArgumentException("K must be between 0 and " + myRandom.size());
+		String[] picked = new String[K];
+		for (int j = 0; j < K; j++)
+			picked[j] = myRandom.dequeue();
+		return picked;
+	}
+
 	public static void main(String[] args) {
 		int K = Integer.parseInt(args[0]);
- 		RandomizedQueue<String> myRandom = new RandomizedQueue<String>();
-		while( !StdIn.isEmpty()){
-			String s = StdIn.readString();
-			myRandom.enqueue(s);
-	    }
-		for (int j = 0; j < K; j ++ )
-					System.out.print(myRandom.dequeue() + "\n");
-		}
+		ArrayList<String> items = new ArrayList<String>();
+		while (!StdIn.isEmpty())
+			items.add(StdIn.readString());
+		for (String s : select(items, K))
+			System.out.print(s + "\n");
+	}
 }